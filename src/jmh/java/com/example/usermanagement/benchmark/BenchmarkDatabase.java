@@ -0,0 +1,94 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserIdAllocator;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Minimal Spring context with a fresh embedded H2 database for repository benchmarks.
+ * <p>
+ * Only the data source, the {@link JdbcTemplate}, the {@link UserRepository} and
+ * its {@link UserIdAllocator} are registered, so benchmarks measure the repository and not application startup.
+ * </p>
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    BenchmarkDatabase() {
+        this(() -> new EmbeddedDatabaseBuilder()
+            .generateUniqueName(true)
+            .setType(EmbeddedDatabaseType.H2)
+            .addScript("schema.sql")
+            .build());
+    }
+
+    /**
+     * Creates the context on a data source supplied by the benchmark. The data
+     * source is closed with the context; its schema is left to the caller.
+     *
+     * @param dataSource Supplier of the data source to benchmark against
+     */
+    BenchmarkDatabase(Supplier<DataSource> dataSource) {
+        // Converts property values such as "1s" to a Duration, as in the application.
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.registerBean(DataSource.class, dataSource);
+        context.registerBean(JdbcTemplate.class, () -> new JdbcTemplate(context.getBean(DataSource.class)));
+        context.register(UserIdAllocator.class, UserRepository.class);
+        context.refresh();
+    }
+
+    JdbcTemplate jdbcTemplate() {
+        return context.getBean(JdbcTemplate.class);
+    }
+
+    UserRepository userRepository() {
+        return context.getBean(UserRepository.class);
+    }
+
+    /**
+     * Creates an instance of the given class with its dependencies injected from this context.
+     *
+     * @param type Class to instantiate
+     * @return New, autowired instance
+     */
+    <T> T create(Class<T> type) {
+        return context.getAutowireCapableBeanFactory().createBean(type);
+    }
+
+    /**
+     * Inserts generated users with IDs 1 to {@code count}, recording each in the change feed.
+     *
+     * @param count Number of users to insert
+     */
+    void populate(int count) {
+        jdbcTemplate().update("INSERT INTO users (id, name, email) "
+            + "SELECT X, 'User ' || X, 'user' || X || '@example.com' FROM SYSTEM_RANGE(1, " + count + ")");
+        jdbcTemplate().update("INSERT INTO user_changes (seq, user_id) SELECT id, id FROM users");
+    }
+
+    /**
+     * Creates a user whose email does not collide with the rows added by {@link #populate(int)}.
+     *
+     * @param i Sequence number that makes the email unique
+     * @return New user that has not been saved yet
+     */
+    static User user(int i) {
+        return new User(0, "New User " + i, "new.user" + i + "@example.com");
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
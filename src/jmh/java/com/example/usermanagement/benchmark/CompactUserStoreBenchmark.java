@@ -0,0 +1,122 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.service.CompactUserStore;
+
+/**
+ * Compares the {@link CompactUserStore} with keeping every user as an object in
+ * two {@link HashMap}s, one by ID and one by email, the way an object cache holds them.
+ * <p>
+ * The heap each approach holds per user is printed once during setup; the
+ * benchmarks measure a lookup by ID and by email, including creating the
+ * returned {@link User} for the compact store.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CompactUserStoreBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean offHeap;
+
+    private BenchmarkDatabase database;
+
+    private CompactUserStore store;
+
+    private Map<Integer, User> usersById;
+
+    private Map<String, User> usersByEmail;
+
+    private int targetId;
+
+    private String targetEmail;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(size);
+        System.setProperty("users.compact-store.off-heap", Boolean.toString(offHeap));
+
+        long baseline = usedHeapAfterGc();
+        store = database.create(CompactUserStore.class);
+        store.refresh();
+        long compact = usedHeapAfterGc() - baseline;
+
+        List<User> users = database.userRepository().getAllUsers();
+        usersById = new HashMap<>();
+        usersByEmail = new HashMap<>();
+        for (User row : users) {
+            // Copy the strings: the embedded database hands out the instances it keeps itself.
+            User user = new User(row.getId(), new String(row.getName()), new String(row.getEmail()));
+            usersById.put(user.getId(), user);
+            usersByEmail.put(user.getEmail(), user);
+        }
+        users = null;
+        long maps = usedHeapAfterGc() - baseline - compact;
+
+        System.out.printf("%n%d users: compact store holds %.1f bytes/user on the heap (%.1f bytes/user in total), "
+            + "hash maps hold %.1f bytes/user%n", size, (double) compact / size,
+            (double) store.getMemoryUsage() / size, (double) maps / size);
+
+        targetId = size / 2;
+        targetEmail = "user" + targetId + "@example.com";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<User> compactFindById() {
+        return store.findById(targetId);
+    }
+
+    @Benchmark
+    public Optional<User> compactFindByEmail() {
+        return store.findByEmail(targetEmail);
+    }
+
+    @Benchmark
+    public Optional<User> mapFindById() {
+        return Optional.ofNullable(usersById.get(targetId));
+    }
+
+    @Benchmark
+    public Optional<User> mapFindByEmail() {
+        return Optional.ofNullable(usersByEmail.get(targetEmail));
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.EmailBloomFilter;
+
+/**
+ * Compares checking whether a new user's email address is taken with a query
+ * on the unique email index against checking it with the {@link EmailBloomFilter},
+ * which only queries addresses it cannot rule out.
+ * <p>
+ * Each call checks a different address that is not in the table, as on a
+ * signup of a new user. The filter's memory use and the false-positive rate
+ * it showed over the run are printed at teardown.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailBloomFilterBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private EmailBloomFilter filter;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(rows);
+        userRepository = database.userRepository();
+        filter = database.create(EmailBloomFilter.class);
+        filter.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%d users: filter holds %.1f KB, observed false-positive rate %.4f%n",
+            rows, filter.getMemoryUsage() / 1024.0, filter.getFalsePositiveRate());
+        database.close();
+    }
+
+    @Benchmark
+    public Set<String> databaseCheck() {
+        return userRepository.findExistingEmails(List.of(BenchmarkDatabase.user(next++).getEmail()));
+    }
+
+    @Benchmark
+    public Set<String> filterCheck() {
+        return filter.findExistingEmails(List.of(BenchmarkDatabase.user(next++).getEmail()));
+    }
+}
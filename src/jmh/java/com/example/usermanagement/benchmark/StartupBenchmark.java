@@ -0,0 +1,105 @@
+package com.example.usermanagement.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Measures the time from launching the application to its first successful {@code GET /users}.
+ * <p>
+ * JMH cannot time a process start, so this is a plain main class. Each run starts
+ * the given jar in a fresh JVM with the given JVM options, polls {@code GET /users}
+ * every few milliseconds until it answers 200 and then stops the process.
+ * </p>
+ * <pre>
+ * java -cp target/test-classes com.example.usermanagement.benchmark.StartupBenchmark \
+ *     target/app/user-management-api-0.0.1-SNAPSHOT.jar \
+ *     -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=startup
+ * </pre>
+ * The number of runs is set with {@code -Dstartup.runs} (default 5).
+ */
+public final class StartupBenchmark {
+
+    private static final String CREDENTIALS = "startup";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: StartupBenchmark <jar> [jvm options...]");
+            System.exit(2);
+        }
+        Path jar = Path.of(args[0]);
+        List<String> jvmOptions = Arrays.asList(args).subList(1, args.length);
+        int runs = Integer.getInteger("startup.runs", 5);
+
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstRequest(jar, jvmOptions);
+            System.out.printf("Run %d: %d ms%n", run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        System.out.printf("Time to first GET /users over %d runs: median %d ms, min %d ms, max %d ms%n",
+            runs, millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    private static long timeToFirstRequest(Path jar, List<String> jvmOptions) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port,
+            "--spring.security.user.name=" + CREDENTIALS, "--spring.security.user.password=" + CREDENTIALS));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+            .header("Authorization", "Basic " + Base64.getEncoder()
+                .encodeToString((CREDENTIALS + ":" + CREDENTIALS).getBytes(StandardCharsets.UTF_8)))
+            .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with status " + process.exitValue());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException ex) {
+                    // Not listening yet.
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful GET /users within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
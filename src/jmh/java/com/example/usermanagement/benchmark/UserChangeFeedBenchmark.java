@@ -0,0 +1,72 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Measures a client sync after {@code changes} new users: re-reading every user
+ * versus reading the change feed from the client's last position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserChangeFeedBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    @Param({"100"})
+    private int changes;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private String since;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(rows);
+        userRepository = database.userRepository();
+        since = userRepository.getChangesAfter("0", rows).getNextSince();
+        for (int i = 0; i < changes; i++) {
+            userRepository.saveUser(BenchmarkDatabase.user(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<User> fullResync() {
+        return userRepository.getAllUsers();
+    }
+
+    @Benchmark
+    public UserChangePage changesSince() {
+        return userRepository.getChangesAfter(since, 1000);
+    }
+}
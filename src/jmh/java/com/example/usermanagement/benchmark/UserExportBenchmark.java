@@ -0,0 +1,155 @@
+package com.example.usermanagement.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Compares writing every user as a JSON array from a materialized list, the way
+ * a buffered {@code List<User>} response is written, with streaming rows through
+ * a {@link JsonGenerator} the way {@code GET /users/export} does.
+ * <p>
+ * Run with {@code -prof gc} to see the bytes allocated per export. The heap each
+ * approach holds at its peak is printed once during setup.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter listWriter;
+
+    private ObjectWriter userWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = new BenchmarkDatabase();
+        database.populate(size);
+        userRepository = database.userRepository();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
+        userWriter = objectMapper.writerFor(User.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        printPeakHeld();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public int materialized() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        listWriter.writeValue(out, userRepository.getAllUsers());
+        return out.size();
+    }
+
+    @Benchmark
+    public long streamed() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        stream(out, null);
+        return out.count;
+    }
+
+    private void stream(OutputStream out, Runnable sampler) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            userRepository.forEachUser(user -> {
+                try {
+                    userWriter.writeValue(generator, user);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                if (sampler != null && user.getId() % (size / 4) == 0) {
+                    sampler.run();
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+
+    private void printPeakHeld() throws IOException {
+        long baseline = usedHeapAfterGc();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        List<User> users = userRepository.getAllUsers();
+        listWriter.writeValue(body, users);
+        long materialized = usedHeapAfterGc() - baseline;
+        Reference.reachabilityFence(users);
+        Reference.reachabilityFence(body);
+
+        users = null;
+        body = null;
+        long floor = usedHeapAfterGc();
+        AtomicLong peak = new AtomicLong(floor);
+        stream(new CountingOutputStream(), () -> peak.accumulateAndGet(usedHeapAfterGc(), Math::max));
+        long streamed = peak.get() - floor;
+
+        System.out.printf("%n%d users: materialized holds %.1f MB, streamed holds %.1f MB%n",
+            size, materialized / 1048576.0, streamed / 1048576.0);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Output stream that discards its bytes and only counts them, like a socket
+     * that the response is written to.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.usermanagement.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserIdAllocator;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Compares creating users whose IDs the caller needs back: one insert per user
+ * reading the generated key, against batches of users given their IDs by the
+ * {@link UserIdAllocator} before a single JDBC batch insert.
+ * <p>
+ * The {@code users} table no longer generates IDs, so the first benchmark
+ * inserts into a copy of it that does, holding the same rows and unique index.
+ * </p>
+ * <p>
+ * Scores are per user. {@code allocate} measures handing out one ID from a reserved block.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserIdAllocationBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private BenchmarkDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private UserRepository userRepository;
+
+    private UserIdAllocator idAllocator;
+
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(1000);
+        jdbcTemplate = database.jdbcTemplate();
+        userRepository = database.userRepository();
+        idAllocator = database.create(UserIdAllocator.class);
+        jdbcTemplate.execute("CREATE TABLE generated_users (id INT AUTO_INCREMENT PRIMARY KEY, "
+            + "name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, CONSTRAINT uk_generated_users_email UNIQUE (email))");
+        jdbcTemplate.update("INSERT INTO generated_users (name, email) SELECT name, email FROM users ORDER BY id");
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int generatedKeys() {
+        int last = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            User user = BenchmarkDatabase.user(next++);
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement("INSERT INTO generated_users (name, email) VALUES (?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                return ps;
+            }, keyHolder);
+            last = keyHolder.getKey().intValue();
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int allocatedIdsBatch() {
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkDatabase.user(next++));
+        }
+        userRepository.saveUsers(batch);
+        return batch.get(BATCH_SIZE - 1).getId();
+    }
+
+    @Benchmark
+    public int allocate() {
+        return idAllocator.nextId();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.usermanagement.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.usermanagement.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Measures Jackson serialization and deserialization of {@link User}.
+ * <p>
+ * The mapper is built the same way Spring MVC builds its message converter
+ * mapper, so the scores reflect what the controller pays per request.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserJsonBenchmark {
+
+    private static final int LIST_SIZE = 1000;
+
+    private ObjectWriter userWriter;
+
+    private ObjectReader userReader;
+
+    private ObjectWriter listWriter;
+
+    private ObjectReader listReader;
+
+    private User user;
+
+    private byte[] userJson;
+
+    private List<User> users;
+
+    private byte[] usersJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        userWriter = objectMapper.writerFor(User.class);
+        userReader = objectMapper.readerFor(User.class);
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
+        listReader = objectMapper.readerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, User.class));
+        user = new User(1, "John Doe", "john.doe@example.com");
+        userJson = userWriter.writeValueAsBytes(user);
+        users = new ArrayList<>(LIST_SIZE);
+        for (int i = 1; i <= LIST_SIZE; i++) {
+            users.add(new User(i, "User " + i, "user" + i + "@example.com"));
+        }
+        usersJson = listWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User deserializeUser() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public byte[] serializeUserList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public List<User> deserializeUserList() throws IOException {
+        return listReader.readValue(usersJson);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Compares indexed single-user lookups with fetching every user and filtering in memory,
+ * which is what clients had to do before the lookup endpoints existed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private int targetId;
+
+    private String targetEmail;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(rows);
+        userRepository = database.userRepository();
+        targetId = rows / 2;
+        targetEmail = "user" + targetId + "@example.com";
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Optional<User> findById() {
+        return userRepository.findById(targetId);
+    }
+
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return userRepository.findByEmail(targetEmail);
+    }
+
+    @Benchmark
+    public Optional<User> listAndFilterByEmail() {
+        return userRepository.getAllUsers().stream()
+            .filter(user -> targetEmail.equals(user.getEmail()))
+            .findFirst();
+    }
+}
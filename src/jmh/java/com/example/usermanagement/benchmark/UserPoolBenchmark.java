@@ -0,0 +1,146 @@
+package com.example.usermanagement.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Measures concurrent insert and read throughput through a HikariCP pool, with
+ * HikariCP defaults and with the pool settings of the {@code mysql} profile.
+ * <p>
+ * The database defaults to in-memory H2. Point it at a scratch MySQL database
+ * with {@code -jvmArgsAppend "-Dbenchmark.jdbc.url=jdbc:mysql://... -Dbenchmark.jdbc.username=...
+ * -Dbenchmark.jdbc.password=..."}; the users table there is emptied. The MySQL
+ * driver properties of the profile (statement caching, batch rewriting) are
+ * only applied against MySQL, since H2 rejects unknown connection settings.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class UserPoolBenchmark {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari.";
+
+    private static final String DRIVER_PROPERTIES_PREFIX = HIKARI_PREFIX + "data-source-properties.";
+
+    private static final int ROWS = 10_000;
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"defaults", "mysql"})
+    private String pool;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private int firstId;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1");
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(url);
+        config.setUsername(System.getProperty("benchmark.jdbc.username", "sa"));
+        config.setPassword(System.getProperty("benchmark.jdbc.password", ""));
+        if ("mysql".equals(pool)) {
+            bindProfile(config, url.startsWith("jdbc:mysql:"));
+        }
+        database = new BenchmarkDatabase(() -> new HikariDataSource(config));
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(database.jdbcTemplate().getDataSource());
+        database.jdbcTemplate().update("DELETE FROM user_changes");
+        database.jdbcTemplate().update("DELETE FROM users");
+        userRepository = database.userRepository();
+        for (int i = 0; i < ROWS; i += BATCH_SIZE) {
+            userRepository.saveUsers(batch());
+        }
+        firstId = database.jdbcTemplate().queryForObject("SELECT MIN(id) FROM users", Integer.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public User findById() {
+        return userRepository.findById(firstId + next.getAndIncrement() % ROWS).orElse(null);
+    }
+
+    @Benchmark
+    public List<User> getUsersAfter() {
+        return userRepository.getUsersAfter(firstId + next.getAndIncrement() % ROWS, 50);
+    }
+
+    @Benchmark
+    public void saveUser() {
+        userRepository.saveUser(BenchmarkDatabase.user(next.getAndIncrement()));
+    }
+
+    @Benchmark
+    public void saveUsers() {
+        userRepository.saveUsers(batch());
+    }
+
+    private List<User> batch() {
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkDatabase.user(next.getAndIncrement()));
+        }
+        return batch;
+    }
+
+    /**
+     * Binds the HikariCP settings of {@code application.properties} overlaid with
+     * {@code application-mysql.properties}, the way Spring Boot does for the profile.
+     */
+    private static void bindProfile(HikariConfig config, boolean mysql) throws IOException {
+        Properties properties = new Properties();
+        for (String name : List.of("application.properties", "application-mysql.properties")) {
+            try (InputStream in = new ClassPathResource(name).getInputStream()) {
+                properties.load(in);
+            }
+        }
+        properties.stringPropertyNames().stream()
+            .filter(key -> !key.startsWith(HIKARI_PREFIX) || !mysql && key.startsWith(DRIVER_PROPERTIES_PREFIX))
+            .forEach(properties::remove);
+        new Binder(new MapConfigurationPropertySource(properties))
+            .bind("spring.datasource.hikari", Bindable.ofInstance(config));
+    }
+}
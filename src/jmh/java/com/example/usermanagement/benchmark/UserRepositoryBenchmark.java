@@ -0,0 +1,88 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Measures the {@link UserRepository} read and write paths against embedded H2.
+ * <p>
+ * The write benchmarks grow the table during an iteration; it is recreated for
+ * every iteration so that read and write scores stay comparable across runs.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRepositoryBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+
+    private UserRepository userRepository;
+
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(rows);
+        userRepository = database.userRepository();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<User> getAllUsers() {
+        return userRepository.getAllUsers();
+    }
+
+    @Benchmark
+    public List<User> getUsersAfter() {
+        return userRepository.getUsersAfter(rows / 2, 50);
+    }
+
+    @Benchmark
+    public void saveUser() {
+        userRepository.saveUser(BenchmarkDatabase.user(next++));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void saveUsers() {
+        // Emails are unique, so every invocation needs a fresh batch; building it is negligible next to the insert.
+        List<User> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(BenchmarkDatabase.user(next++));
+        }
+        userRepository.saveUsers(batch);
+    }
+}
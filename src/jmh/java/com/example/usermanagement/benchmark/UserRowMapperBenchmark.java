@@ -0,0 +1,73 @@
+package com.example.usermanagement.benchmark;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRowMapper;
+
+/**
+ * Compares {@link BeanPropertyRowMapper} with {@link UserRowMapper} when mapping a result set of users.
+ * <p>
+ * Rows come from an in-memory {@link SimpleResultSet}, so the score isolates the
+ * mapping cost from any database work. Scores are reported in rows per second.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserRowMapperBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private SimpleResultSet resultSet;
+
+    /**
+     * Builds a result set with the same columns as the users table.
+     */
+    @Setup
+    public void setUp() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("ID", Types.INTEGER, 10, 0);
+        resultSet.addColumn("NAME", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("EMAIL", Types.VARCHAR, 255, 0);
+        for (int i = 1; i <= ROWS; i++) {
+            resultSet.addRow(i, "User " + i, "user" + i + "@example.com");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<User> beanPropertyRowMapper() throws SQLException {
+        resultSet.beforeFirst();
+        return new RowMapperResultSetExtractor<>(new BeanPropertyRowMapper<>(User.class)).extractData(resultSet);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<User> userRowMapper() throws SQLException {
+        resultSet.beforeFirst();
+        return new RowMapperResultSetExtractor<>(new UserRowMapper()).extractData(resultSet);
+    }
+}
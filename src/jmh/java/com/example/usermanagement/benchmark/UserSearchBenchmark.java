@@ -0,0 +1,89 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.service.UserSearchIndex;
+
+/**
+ * Measures {@link UserSearchIndex} queries over one million users, compared with
+ * the {@code LIKE '%q%'} scan the index replaces.
+ * <p>
+ * The queries cover a selective prefix, a rare substring, a substring shared by
+ * every user and a query without matches. Build time and heap used by the index
+ * are printed once during setup.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserSearchBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"user12345", "4242", "example", "zzz"})
+    private String query;
+
+    private BenchmarkDatabase database;
+
+    private UserSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.populate(size);
+        long heapBefore = usedHeapAfterGc();
+        long start = System.nanoTime();
+        searchIndex = database.create(UserSearchIndex.class);
+        searchIndex.refresh();
+        long buildMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf("%nIndexed %d users in %d ms, index holds %.0f MB%n",
+            searchIndex.size(), buildMillis, (usedHeapAfterGc() - heapBefore) / 1048576.0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<User> index() {
+        return searchIndex.search(query, LIMIT);
+    }
+
+    @Benchmark
+    public List<User> like() {
+        String pattern = "%" + query + "%";
+        return database.jdbcTemplate().query(
+            "SELECT id, name, email FROM users WHERE LOWER(name) LIKE ? OR LOWER(email) LIKE ? ORDER BY id LIMIT ?",
+            (rs, rowNum) -> new User(rs.getInt("id"), rs.getString("name"), rs.getString("email")),
+            pattern, pattern, LIMIT);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
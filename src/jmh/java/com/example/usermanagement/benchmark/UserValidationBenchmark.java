@@ -0,0 +1,82 @@
+package com.example.usermanagement.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.validation.Errors;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.validation.UserValidator;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Measures Bean Validation of {@link User} against the hand-written {@link UserValidator},
+ * for valid and invalid input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private final UserValidator userValidator = new UserValidator();
+
+    private User validUser;
+
+    private User invalidUser;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validUser = new User(1, "John Doe", "john.doe@example.com");
+        invalidUser = new User(-1, "J", "not-an-email");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<User>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+
+    @Benchmark
+    public Errors userValidatorValidUser() {
+        return userValidator.validateObject(validUser);
+    }
+
+    @Benchmark
+    public Errors userValidatorInvalidUser() {
+        return userValidator.validateObject(invalidUser);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.usermanagement.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Compares the JSON, CBOR and Smile encodings of a {@link UserPage}.
+ * <p>
+ * Each mapper is built the way Spring MVC builds the matching message
+ * converter. The encoded payload size of every combination is printed once
+ * during setup, next to the encode and decode times JMH reports.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserWireFormatBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private UserPage page;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = objectMapper.writerFor(UserPage.class);
+        reader = objectMapper.readerFor(UserPage.class);
+        List<User> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(new User(i, "User " + i, "user" + i + "@example.com"));
+        }
+        page = new UserPage(users, "aWQ6MTAwMDA");
+        encoded = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d users: %d bytes (%.1f bytes/user)%n",
+            format, size, encoded.length, (double) encoded.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public UserPage decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
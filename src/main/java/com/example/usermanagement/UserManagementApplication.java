@@ -2,12 +2,14 @@ package com.example.usermanagement;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 /**
  * Main entry point for the User Management Application.
  * This class bootstraps the Spring Boot application.
  */
 @SpringBootApplication
+@ImportRuntimeHints(UserManagementRuntimeHints.class)
 public class UserManagementApplication {
 
     /**
@@ -0,0 +1,44 @@
+package com.example.usermanagement;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import com.example.usermanagement.controller.UserController;
+import com.example.usermanagement.dto.BatchItemError;
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.IngestionStatus;
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+
+/**
+ * Reachability metadata for a GraalVM native image of the application.
+ * <p>
+ * Spring AOT infers most hints from the bean definitions and request mappings;
+ * these cover what is reached only through reflection or the classpath at run
+ * time: Jackson binding of the request and response types, the controller's
+ * handler methods, the schema script and the H2 JDBC driver.
+ * </p>
+ */
+public class UserManagementRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    /**
+     * Registers the hints.
+     *
+     * @param hints       Hints to add to
+     * @param classLoader Class loader of the application
+     */
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(),
+            User.class, UserPage.class, BatchResult.class, BatchItemError.class, IngestionStatus.class);
+        hints.reflection().registerType(UserController.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(TypeReference.of("org.h2.Driver"), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("schema.sql");
+        hints.resources().registerPattern("schema-*.sql");
+    }
+}
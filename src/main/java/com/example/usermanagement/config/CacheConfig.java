@@ -0,0 +1,32 @@
+package com.example.usermanagement.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the in-process read-through cache used by the user service.
+ * <p>
+ * The cache provider, size and time-to-live are configured through the
+ * {@code spring.cache.*} properties. Hit, miss and eviction counts are
+ * published through the actuator {@code /actuator/metrics/cache.*} meters.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Cache of user pages, keyed by page size and cursor.
+     */
+    public static final String USER_PAGES = "userPages";
+
+    /**
+     * Cache of single users, keyed by ID.
+     */
+    public static final String USERS_BY_ID = "usersById";
+
+    /**
+     * Cache of single users, keyed by email address.
+     */
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+}
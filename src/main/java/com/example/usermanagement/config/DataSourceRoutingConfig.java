@@ -0,0 +1,86 @@
+package com.example.usermanagement.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.example.usermanagement.datasource.ReadWriteRoutingAspect;
+import com.example.usermanagement.datasource.ReadWriteRoutingDataSource;
+import com.example.usermanagement.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes user repository reads to replica databases when
+ * {@code users.datasource.routing.enabled=true}.
+ * <p>
+ * The primary is configured through the usual {@code spring.datasource.*}
+ * properties and each replica through {@code users.datasource.routing.replicas[n].*}.
+ * The routing data source becomes the primary {@link DataSource} bean, so the
+ * auto-configured {@code JdbcTemplate} uses it without further changes.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * Connection pool of the primary database.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Data source choosing between the primary and the replicas for each connection.
+     */
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(HikariDataSource primaryDataSource,
+            DataSourceRoutingProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            HikariConfig config = properties.getReplicas().get(i);
+            if (config.getPoolName() == null) {
+                config.setPoolName("replica-" + i);
+            }
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(new HikariDataSource(config));
+        }
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties.getStrategy());
+        dataSource.setReadYourWritesWindow(properties.getReadYourWritesWindow());
+        return dataSource;
+    }
+
+    /**
+     * Aspect binding the read or write route around each repository call.
+     */
+    @Bean
+    public ReadWriteRoutingAspect readWriteRoutingAspect(ReadWriteRoutingDataSource dataSource) {
+        return new ReadWriteRoutingAspect(dataSource);
+    }
+
+    /**
+     * Filter carrying each client's read-your-writes window between its requests.
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadWriteRoutingDataSource dataSource) {
+        return new ReadYourWritesFilter(dataSource);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.usermanagement.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.example.usermanagement.datasource.ReadWriteRoutingDataSource.Strategy;
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Settings of read/write data source routing, bound from {@code users.datasource.routing.*}.
+ */
+@ConfigurationProperties("users.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Whether reads are routed to replicas.
+     */
+    private boolean enabled;
+
+    /**
+     * How a replica is picked for a read.
+     */
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+
+    /**
+     * How long a writer's own reads stay on the primary after its write.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(1);
+
+    /**
+     * Connection pool of each replica, with the same keys as {@code spring.datasource.hikari.*}.
+     */
+    private List<HikariConfig> replicas = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public List<HikariConfig> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<HikariConfig> replicas) {
+        this.replicas = replicas;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.usermanagement.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import com.example.usermanagement.repository.ShardedUserRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Spreads users over several databases when {@code users.sharding.enabled=true}.
+ * <p>
+ * Each shard is configured under {@code users.sharding.shards[n].*}. The
+ * {@link ShardedUserRepository} built here replaces the single-database
+ * repository everywhere it is injected.
+ * </p>
+ * <p>
+ * Shard {@code k} of {@code N} issues the IDs {@code k + 1}, {@code k + 1 + N},
+ * {@code k + 1 + 2N}, ... from blocks reserved in its own {@code user_id_sequence}
+ * table, so that IDs are unique across shards.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "users.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * User repository writing each user to the shard its email hashes to.
+     */
+    @Bean
+    @Primary
+    public ShardedUserRepository shardedUserRepository(ShardingProperties properties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${users.export.fetch-size:1000}") int exportFetchSize,
+            @Value("${users.batch.chunk-size:500}") int batchChunkSize,
+            @Value("${users.id.block-size:1000}") int idBlockSize) {
+        int count = properties.getShards().size();
+        List<DataSource> shards = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            HikariConfig config = properties.getShards().get(k);
+            if (config.getPoolName() == null) {
+                config.setPoolName("shard-" + k);
+            }
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            HikariDataSource dataSource = new HikariDataSource(config);
+            if (properties.isInitializeSchema()) {
+                initializeSchema(dataSource, config.getJdbcUrl());
+            }
+            shards.add(dataSource);
+        }
+        return new ShardedUserRepository(shards, exportFetchSize, batchChunkSize, idBlockSize);
+    }
+
+    /**
+     * Creates missing tables with {@code schema.sql}, then applies the shard database's
+     * {@code schema-<platform>.sql} to tables created by earlier versions, as Spring Boot
+     * does for the main data source.
+     */
+    private static void initializeSchema(DataSource dataSource, String jdbcUrl) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        ClassPathResource migration = new ClassPathResource("schema-" + DatabaseDriver.fromJdbcUrl(jdbcUrl).getId() + ".sql");
+        if (migration.exists()) {
+            populator.addScript(migration);
+        }
+        populator.execute(dataSource);
+    }
+}
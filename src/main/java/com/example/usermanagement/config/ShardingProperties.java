@@ -0,0 +1,55 @@
+package com.example.usermanagement.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Settings of hash-sharded user storage, bound from {@code users.sharding.*}.
+ */
+@ConfigurationProperties("users.sharding")
+public class ShardingProperties {
+
+    /**
+     * Whether users are spread over the shards below instead of the primary data source.
+     */
+    private boolean enabled;
+
+    /**
+     * Whether the users table is created on each shard at startup when missing.
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * Connection pool of each shard, with the same keys as {@code spring.datasource.hikari.*}.
+     * The number of entries is the shard count.
+     */
+    private List<HikariConfig> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public List<HikariConfig> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<HikariConfig> shards) {
+        this.shards = shards;
+    }
+}
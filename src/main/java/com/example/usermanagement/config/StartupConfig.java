@@ -0,0 +1,36 @@
+package com.example.usermanagement.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.usermanagement.controller.UserController;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.service.UserService;
+
+/**
+ * Startup tuning applied with the {@code startup} profile.
+ * <p>
+ * The profile turns on lazy bean initialization, so beans that are not needed
+ * to serve requests (actuator endpoints, metrics binders, the search index)
+ * are only created when first used. The beans on the {@code /users} request
+ * path are still created eagerly, so the first request does not pay for them.
+ * </p>
+ */
+@Configuration
+@Profile("startup")
+public class StartupConfig {
+
+    /**
+     * Keeps the beans serving {@code /users} out of lazy initialization.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter usersRequestPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(UserController.class, UserService.class,
+            UserRepository.class, JdbcTemplate.class, DataSource.class);
+    }
+}
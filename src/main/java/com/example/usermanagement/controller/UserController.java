@@ -1,23 +1,49 @@
 package com.example.usermanagement.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.IngestionStatus;
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.dto.UserPage;
 import com.example.usermanagement.entity.User;
+import com.example.usermanagement.service.UserIngestionQueue;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.validation.InvalidRequestException;
+import com.example.usermanagement.validation.UserValidator;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import jakarta.validation.Valid;
 
@@ -29,29 +55,250 @@ import jakarta.validation.Valid;
 @RequestMapping("/users")
 public class UserController {
 
+    /**
+     * Media type of the Smile binary JSON format.
+     */
+    public static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserValidator userValidator;
+
+    /**
+     * Write-behind queue, present only when {@code users.write-behind.enabled=true}.
+     */
+    @Autowired(required = false)
+    private UserIngestionQueue ingestionQueue;
+
     /**
-     * Retrieves a list of all users.
+     * Validates {@code @Valid} user request bodies with {@link UserValidator}
+     * instead of Bean Validation.
      *
-     * @return List of User objects
+     * @param binder Binder of the {@code user} request body
+     */
+    @InitBinder("user")
+    public void initUserBinder(WebDataBinder binder) {
+        binder.setValidator(userValidator);
+    }
+
+    /**
+     * Retrieves a page of users ordered by ID.
+     * <p>
+     * Pass the {@code nextCursor} of a page as {@code after} to read the next one.
+     * Responses carry a weak ETag built from the position of the change feed and
+     * the page bounds; a request whose {@code If-None-Match} matches it is
+     * answered with 304 before the page is read. The version is taken before the
+     * page, so the page sent is never older than its tag.
+     * </p>
+     * <p>
+     * JSON is returned by default. Clients may ask for the more compact binary
+     * {@code application/cbor} or {@code application/x-jackson-smile} encodings
+     * through the {@code Accept} header; each encoding has its own ETag.
+     * </p>
+     *
+     * @param limit   Maximum number of users to return, defaults to {@value UserService#DEFAULT_PAGE_SIZE}
+     * @param after   Opaque cursor from a previous page, omitted for the first page
+     * @param request Current request, used to evaluate {@code If-None-Match}
+     * @return Page of User objects and the cursor for the next page, or {@code null} when not modified
      */
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<UserPage> getUsers(@RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             WebRequest request) {
+        int pageLimit = limit != null ? limit : UserService.DEFAULT_PAGE_SIZE;
+        String version = userService.getPageVersion(after, pageLimit);
+        // Weak, so that the servlet container may still gzip the response.
+        String etag = "W/\"" + version + representationSuffix(request) + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        UserPage page = userService.getUsersPage(after, pageLimit, version);
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(page);
     }
     
+    /**
+     * Searches users by name or email for type-ahead lookups.
+     *
+     * @param q     Text to look for anywhere in a name or email, ignoring case
+     * @param limit Maximum number of users to return; defaults to {@value UserService#DEFAULT_SEARCH_LIMIT}
+     * @return List of matching users, those whose name or email starts with {@code q} first
+     */
+    @GetMapping("/search")
+    public List<User> searchUsers(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return userService.searchUsers(q, limit != null ? limit : UserService.DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Retrieves the users inserted or changed after a point of the change feed.
+     * <p>
+     * Start with {@code since=0} and pass the returned {@code nextSince} on the
+     * next call; the cost of a sync then depends on what changed, not on the
+     * number of users. Keep reading while {@code hasMore} is {@code true}.
+     * The cursor is opaque: with sharded users it holds a position per shard.
+     * </p>
+     *
+     * @param since Cursor from a previous response, 0 for every change
+     * @param limit Maximum number of changes to return; defaults to {@value UserService#DEFAULT_CHANGES_LIMIT}
+     * @return Changed users with the cursor to resume from
+     */
+    @GetMapping("/changes")
+    public UserChangePage getChanges(@RequestParam(defaultValue = "0") String since,
+                                     @RequestParam(required = false) Integer limit) {
+        return userService.getChanges(since, limit != null ? limit : UserService.DEFAULT_CHANGES_LIMIT);
+    }
+
+    /**
+     * Retrieves a single user by ID.
+     *
+     * @param id User ID
+     * @return ResponseEntity with the user, or 404 if no user has this ID
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<User> getUser(@PathVariable int id) {
+        return ResponseEntity.of(userService.getUserById(id));
+    }
+
+    /**
+     * Retrieves a single user by email address.
+     *
+     * @param email Email address to look up
+     * @return ResponseEntity with the user, or 404 if no user has this email
+     */
+    @GetMapping(params = "email")
+    public ResponseEntity<User> getUserByEmail(@RequestParam String email) {
+        return ResponseEntity.of(userService.getUserByEmail(email));
+    }
+
+    /**
+     * Exports every user as newline-delimited JSON, one user per line.
+     * <p>
+     * Users are written to the response as they are read from the database,
+     * so memory use stays constant no matter how large the table is.
+     * </p>
+     *
+     * @return ResponseEntity whose body streams all users
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        ObjectWriter writer = objectMapper.writerFor(User.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                userService.exportUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
+    /**
+     * Exports every user as a single JSON array.
+     * <p>
+     * The array is written element by element with a {@link JsonGenerator} while
+     * rows are read from the database, so neither the list of users nor the
+     * serialized body is ever held in memory as a whole.
+     * </p>
+     *
+     * @return ResponseEntity whose body streams all users as a JSON array
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsersAsJsonArray() {
+        ObjectWriter writer = objectMapper.writerFor(User.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                userService.exportUsers(user -> {
+                    try {
+                        writer.writeValue(generator, user);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
     /**
      * Creates a new user.
+     * <p>
+     * The response is 201 with the created user, including its assigned ID, and
+     * its URI in the {@code Location} header. In write-behind mode the user is
+     * queued instead of inserted: the response is 202 with a tracking ID, or 429
+     * when the queue is full.
+     * </p>
      *
      * @param user The User object to be created, validated using @Valid
-     * @return ResponseEntity with success message if creation is successful
+     * @return ResponseEntity with the created user, or the queued status
      */
     @PostMapping
-    public ResponseEntity<String> createUser(@Valid @RequestBody User user) {
+    public ResponseEntity<?> createUser(@Valid @RequestBody User user) {
+        if (ingestionQueue != null) {
+            return ingestionQueue.submit(user)
+                .<ResponseEntity<?>>map(status -> ResponseEntity
+                    .accepted()
+                    .location(URI.create("/users/ingestion/" + status.getTrackingId()))
+                    .body(status))
+                .orElseGet(() -> ResponseEntity
+                    .status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .body(Map.of("error", "Ingestion queue is full")));
+        }
         userService.saveUser(user);
-        return ResponseEntity.ok("User created successfully");
+        return ResponseEntity.created(URI.create("/users/" + user.getId())).body(user);
+    }
+
+    /**
+     * Retrieves the progress of a user creation accepted in write-behind mode.
+     *
+     * @param trackingId Tracking ID returned when the user was accepted
+     * @return ResponseEntity with the status, or 404 if the ID is unknown, expired or write-behind is disabled
+     */
+    @GetMapping("/ingestion/{trackingId}")
+    public ResponseEntity<IngestionStatus> getIngestionStatus(@PathVariable String trackingId) {
+        if (ingestionQueue == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.of(ingestionQueue.getStatus(trackingId));
+    }
+
+    /**
+     * Creates several users in one request.
+     * <p>
+     * Every element is validated individually. Valid users are inserted in JDBC
+     * batches and invalid ones are reported by their position in the array.
+     * </p>
+     *
+     * @param users The User objects to be created
+     * @return Number of users created and the validation errors of rejected users
+     */
+    @PostMapping("/batch")
+    public BatchResult createUsers(@RequestBody List<User> users) {
+        return userService.saveUsers(users);
     }
 
     /**
@@ -68,4 +315,61 @@ public class UserController {
             errors.put(error.getField(), error.getDefaultMessage()));
         return errors;
     }
+
+    /**
+     * Handles invalid request parameters such as an out-of-range limit or a malformed cursor.
+     *
+     * @param ex InvalidRequestException describing the invalid input
+     * @return Map containing the error message
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleInvalidRequest(InvalidRequestException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+        return error;
+    }
+
+    /**
+     * Handles inserts rejected by the unique email index.
+     *
+     * @param ex DuplicateKeyException raised by the database
+     * @return Map containing the error message
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDuplicateKey(DuplicateKeyException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", UserService.DUPLICATE_EMAIL_MESSAGE);
+        return error;
+    }
+
+    /**
+     * Distinguishes the ETags of the encodings a client can negotiate, so that a
+     * validator obtained for one encoding never matches a response in another.
+     */
+    private static String representationSuffix(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType mediaType : accepted) {
+                if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                    return "-cbor";
+                }
+                if (mediaType.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+                    return "-smile";
+                }
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return "";
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // Content negotiation rejects the header later; the suffix does not matter.
+        }
+        return "";
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.usermanagement.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+import com.example.usermanagement.datasource.ReadWriteRoutingDataSource.Route;
+
+/**
+ * Binds a {@link Route} to the calling thread for every public user repository call.
+ * <p>
+ * Repository methods whose name starts with {@code save} are writes and run on
+ * the primary; all other methods are reads and may run on a replica. A call
+ * nested inside a write stays on the primary. After a write, the writer's
+ * read-your-writes window is opened and, inside a web request, handed to the
+ * client by {@link ReadYourWritesFilter}.
+ * </p>
+ */
+@Aspect
+public class ReadWriteRoutingAspect {
+
+    private final ReadWriteRoutingDataSource dataSource;
+
+    /**
+     * Creates the aspect.
+     *
+     * @param dataSource Routing data source notified after every write
+     */
+    public ReadWriteRoutingAspect(ReadWriteRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Runs a repository call on the route matching its kind.
+     */
+    @Around("execution(public * com.example.usermanagement.repository.UserRepository+.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Route previous = ReadWriteRoutingDataSource.currentRoute();
+        boolean write = joinPoint.getSignature().getName().startsWith("save");
+        ReadWriteRoutingDataSource.setCurrentRoute(write || previous == Route.WRITE ? Route.WRITE : Route.READ);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadWriteRoutingDataSource.setCurrentRoute(previous);
+            if (write) {
+                ReadYourWritesFilter.remember(dataSource.markWritten(), dataSource.getReadYourWritesWindow());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.usermanagement.datasource;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Data source that sends reads to replicas and everything else to the primary.
+ * <p>
+ * The target is chosen per connection from the {@link Route} bound to the
+ * calling thread by {@link ReadWriteRoutingAspect}. Without a bound route, or
+ * with no replicas configured, connections come from the primary. Replicas are
+ * picked round-robin or, for HikariCP pools, by the fewest connections in use.
+ * </p>
+ * <p>
+ * Replication is asynchronous, so a replica may not yet have a row the primary
+ * just wrote. After a write, reads by the same writer go to the primary for the
+ * read-your-writes window, giving replicas time to catch up; other writers'
+ * reads keep going to the replicas. The window is bound to the calling thread:
+ * {@link ReadYourWritesFilter} carries it from one request of a client to the next.
+ * </p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * Kind of work a connection is borrowed for.
+     */
+    public enum Route {
+        READ, WRITE
+    }
+
+    /**
+     * How a replica is picked for a read.
+     */
+    public enum Strategy {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private static final String PRIMARY = "primary";
+
+    private static final String REPLICA = "replica-";
+
+    private static final ThreadLocal<Route> CURRENT_ROUTE = new ThreadLocal<>();
+
+    /**
+     * End of the calling writer's read-your-writes window, in epoch milliseconds.
+     */
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private final List<DataSource> replicas;
+
+    private final Strategy strategy;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile long readYourWritesWindowMillis;
+
+    /**
+     * Creates a routing data source.
+     *
+     * @param primary  Data source receiving writes, and reads when no replica may serve them
+     * @param replicas Read-only copies of the primary, possibly empty
+     * @param strategy How a replica is picked for a read
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Strategy strategy) {
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(REPLICA + i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Sets how long reads stay on the primary after a write.
+     *
+     * @param window Read-your-writes window; zero sends every read to a replica
+     */
+    public void setReadYourWritesWindow(Duration window) {
+        this.readYourWritesWindowMillis = window.toMillis();
+    }
+
+    /**
+     * Returns how long reads stay on the primary after a write.
+     *
+     * @return Read-your-writes window
+     */
+    public Duration getReadYourWritesWindow() {
+        return Duration.ofMillis(readYourWritesWindowMillis);
+    }
+
+    /**
+     * Returns the route bound to the calling thread.
+     *
+     * @return Current route, or {@code null} if none is bound
+     */
+    public static Route currentRoute() {
+        return CURRENT_ROUTE.get();
+    }
+
+    /**
+     * Binds a route to the calling thread.
+     *
+     * @param route Route to bind, or {@code null} to unbind
+     */
+    public static void setCurrentRoute(Route route) {
+        if (route == null) {
+            CURRENT_ROUTE.remove();
+        } else {
+            CURRENT_ROUTE.set(route);
+        }
+    }
+
+    /**
+     * Binds the end of a read-your-writes window to the calling thread, such as
+     * one carried over from an earlier request of the same client.
+     *
+     * @param epochMillis End of the window in epoch milliseconds, or {@code null} to unbind
+     */
+    public static void setPrimaryUntil(Long epochMillis) {
+        if (epochMillis == null) {
+            PRIMARY_UNTIL.remove();
+        } else {
+            PRIMARY_UNTIL.set(epochMillis);
+        }
+    }
+
+    /**
+     * Records that the calling thread has completed a write, keeping its reads on
+     * the primary for the read-your-writes window.
+     *
+     * @return End of the window in epoch milliseconds
+     */
+    public long markWritten() {
+        long until = System.currentTimeMillis() + readYourWritesWindowMillis;
+        PRIMARY_UNTIL.set(until);
+        return until;
+    }
+
+    /**
+     * Tells whether reads on the calling thread must still go to the primary because of its own recent write.
+     *
+     * @return {@code true} inside the calling writer's read-your-writes window
+     */
+    public boolean isReadYourWritesWindowOpen() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && System.currentTimeMillis() < until;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (CURRENT_ROUTE.get() != Route.READ || replicas.isEmpty() || isReadYourWritesWindowOpen()) {
+            return PRIMARY;
+        }
+        return REPLICA + (strategy == Strategy.LEAST_LOADED ? leastLoadedReplica() : Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    private int leastLoadedReplica() {
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        // Start from a rotating offset so ties are spread instead of always favouring the first replica.
+        for (int i = 0; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            int load = load(replicas.get(candidate));
+            if (load < bestLoad) {
+                best = candidate;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private static int load(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Closes every replica. The primary is shared with its owner, which closes it.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.usermanagement.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Carries a client's read-your-writes window from the request that wrote to the requests that follow.
+ * <p>
+ * When a request writes, {@link ReadWriteRoutingAspect} answers it with a
+ * cookie holding the end of the window. Reads of a later request presenting
+ * the cookie go to the primary until then; requests without it, from every
+ * other client, keep reading from the replicas. A client that does not keep
+ * cookies reads its own writes only within the request that made them.
+ * </p>
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * Name of the cookie holding the end of the window, in epoch milliseconds.
+     */
+    public static final String COOKIE_NAME = "users-primary-until";
+
+    private static final String ISSUED_ATTRIBUTE = ReadYourWritesFilter.class.getName() + ".issued";
+
+    private final ReadWriteRoutingDataSource dataSource;
+
+    /**
+     * Creates the filter.
+     *
+     * @param dataSource Routing data source whose read-your-writes window the cookie carries
+     */
+    public ReadYourWritesFilter(ReadWriteRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadWriteRoutingDataSource.setPrimaryUntil(primaryUntil(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.setPrimaryUntil(null);
+        }
+    }
+
+    /**
+     * Hands the window opened by a write to the client of the current request.
+     * Does nothing outside a request, with no window, or once the request has been given a cookie.
+     *
+     * @param until  End of the window in epoch milliseconds
+     * @param window Length of the window
+     */
+    static void remember(long until, Duration window) {
+        if (window.isZero() || !(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        // A later write of the same request only moves the end by the time between the two writes.
+        if (response == null || response.isCommitted()
+                || attributes.getAttribute(ISSUED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return;
+        }
+        attributes.setAttribute(ISSUED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(until));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (window.toMillis() + 999) / 1000));
+        response.addCookie(cookie);
+    }
+
+    /**
+     * Reads the end of the window from the request's cookie. A value further
+     * ahead than one window cannot have been issued here and is ignored.
+     */
+    private Long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    long latest = System.currentTimeMillis() + dataSource.getReadYourWritesWindow().toMillis();
+                    return until <= latest ? until : null;
+                } catch (NumberFormatException ex) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.usermanagement.dto;
+
+import java.util.Map;
+
+/**
+ * Validation errors for a single element of a bulk user creation request.
+ */
+public class BatchItemError {
+
+    /**
+     * Zero-based position of the rejected user in the request array.
+     */
+    private final int index;
+
+    /**
+     * Field names mapped to their validation error messages.
+     */
+    private final Map<String, String> errors;
+
+    /**
+     * Creates the error report for one rejected user.
+     *
+     * @param index  Zero-based position of the user in the request array
+     * @param errors Field names mapped to validation error messages
+     */
+    public BatchItemError(int index, Map<String, String> errors) {
+        this.index = index;
+        this.errors = errors;
+    }
+
+    /**
+     * Retrieves the position of the rejected user in the request array.
+     *
+     * @return Zero-based index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Retrieves the validation errors for the rejected user.
+     *
+     * @return Map of field names and corresponding validation error messages
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user creation request.
+ * <p>
+ * Valid users are inserted; invalid ones are skipped and reported individually
+ * so that the caller can correct and resubmit only the rejected elements.
+ * </p>
+ */
+public class BatchResult {
+
+    /**
+     * Number of users inserted.
+     */
+    private final int created;
+
+    /**
+     * Errors for every rejected user, ordered by position in the request.
+     */
+    private final List<BatchItemError> errors;
+
+    /**
+     * Creates the outcome of a bulk request.
+     *
+     * @param created Number of users inserted
+     * @param errors  Errors for every rejected user
+     */
+    public BatchResult(int created, List<BatchItemError> errors) {
+        this.created = created;
+        this.errors = errors;
+    }
+
+    /**
+     * Retrieves the number of users inserted.
+     *
+     * @return Number of inserted users
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * Retrieves the errors for rejected users.
+     *
+     * @return List of per-item errors, empty if every user was inserted
+     */
+    public List<BatchItemError> getErrors() {
+        return errors;
+    }
+}
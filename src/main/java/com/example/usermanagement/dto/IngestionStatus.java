@@ -0,0 +1,106 @@
+package com.example.usermanagement.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Progress of a user creation request accepted by the write-behind ingestion queue.
+ */
+public class IngestionStatus {
+
+    /**
+     * Lifecycle of a queued user creation.
+     */
+    public enum State {
+        /** Accepted and waiting to be written. */
+        PENDING,
+        /** Written to the database. */
+        CREATED,
+        /** Rejected when written, see the errors for the reason. */
+        FAILED
+    }
+
+    /**
+     * Identifier returned to the client when the request was accepted.
+     */
+    private final String trackingId;
+
+    /**
+     * Current state of the queued creation.
+     */
+    private final State state;
+
+    /**
+     * Field names mapped to error messages, empty unless the state is {@link State#FAILED}.
+     */
+    private final Map<String, String> errors;
+
+    /**
+     * ID assigned to the user, present only once the state is {@link State#CREATED}.
+     */
+    private final Integer userId;
+
+    /**
+     * Creates a status snapshot for a queued user creation that has no user ID yet.
+     *
+     * @param trackingId Identifier returned to the client
+     * @param state      Current state
+     * @param errors     Field names mapped to error messages
+     */
+    public IngestionStatus(String trackingId, State state, Map<String, String> errors) {
+        this(trackingId, state, errors, null);
+    }
+
+    /**
+     * Creates a status snapshot for a queued user creation.
+     *
+     * @param trackingId Identifier returned to the client
+     * @param state      Current state
+     * @param errors     Field names mapped to error messages
+     * @param userId     ID assigned to the created user, or {@code null}
+     */
+    public IngestionStatus(String trackingId, State state, Map<String, String> errors, Integer userId) {
+        this.trackingId = trackingId;
+        this.state = state;
+        this.errors = errors;
+        this.userId = userId;
+    }
+
+    /**
+     * Retrieves the tracking identifier.
+     *
+     * @return Identifier returned to the client
+     */
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    /**
+     * Retrieves the current state.
+     *
+     * @return State of the queued creation
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Retrieves the errors of a failed creation.
+     *
+     * @return Map of field names and corresponding error messages
+     */
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Retrieves the ID of the created user.
+     *
+     * @return User ID, or {@code null} until the user has been created
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Integer getUserId() {
+        return userId;
+    }
+}
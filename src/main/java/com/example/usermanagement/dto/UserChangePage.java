@@ -0,0 +1,75 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+import com.example.usermanagement.entity.User;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Users inserted or changed after a point of the change feed.
+ * <p>
+ * {@code nextSince} is an opaque cursor that must be passed back as the
+ * {@code since} parameter to read the changes that follow. When {@code hasMore} is {@code false} the
+ * caller is up to date and should poll again later with the same value.
+ * </p>
+ */
+public class UserChangePage {
+
+    /**
+     * Changed users, in the order of their changes.
+     */
+    private final List<User> users;
+
+    /**
+     * Cursor just past the last change on this page, or the requested one if there are none.
+     */
+    private final String nextSince;
+
+    /**
+     * Whether more changes were already recorded past this page.
+     */
+    private final boolean hasMore;
+
+    /**
+     * Creates a page of changes.
+     *
+     * @param users     Changed users, in the order of their changes
+     * @param nextSince Cursor to resume from
+     * @param hasMore   Whether more changes follow this page
+     */
+    @JsonCreator
+    public UserChangePage(@JsonProperty("users") List<User> users, @JsonProperty("nextSince") String nextSince,
+                          @JsonProperty("hasMore") boolean hasMore) {
+        this.users = users;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Retrieves the changed users.
+     *
+     * @return List of User objects, in the order of their changes
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Retrieves the cursor to resume from.
+     *
+     * @return Value for the {@code since} parameter of the next request
+     */
+    public String getNextSince() {
+        return nextSince;
+    }
+
+    /**
+     * Tells whether more changes follow this page.
+     *
+     * @return {@code true} if the next request will return more changes right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
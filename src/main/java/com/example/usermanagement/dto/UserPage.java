@@ -0,0 +1,58 @@
+package com.example.usermanagement.dto;
+
+import java.util.List;
+
+import com.example.usermanagement.entity.User;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A single page of users returned by the keyset-paginated users listing.
+ * <p>
+ * The {@code nextCursor} is an opaque token that must be passed back as the
+ * {@code after} parameter to fetch the following page. It is {@code null}
+ * when there are no more users to read.
+ * </p>
+ */
+public class UserPage {
+
+    /**
+     * Users on this page, ordered by ascending ID.
+     */
+    private final List<User> users;
+
+    /**
+     * Cursor pointing past the last user on this page, or {@code null} on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Creates a page of users.
+     *
+     * @param users      Users on this page, ordered by ascending ID
+     * @param nextCursor Cursor for the next page, or {@code null} if this is the last page
+     */
+    @JsonCreator
+    public UserPage(@JsonProperty("users") List<User> users, @JsonProperty("nextCursor") String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Retrieves the users on this page.
+     *
+     * @return List of User objects
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    /**
+     * Retrieves the cursor for the next page.
+     *
+     * @return Opaque cursor string, or {@code null} if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
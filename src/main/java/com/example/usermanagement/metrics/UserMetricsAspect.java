@@ -0,0 +1,163 @@
+package com.example.usermanagement.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.usermanagement.entity.User;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Records Micrometer metrics for every public call into the user repository, service and controller.
+ * <p>
+ * Each layer gets its own timer ({@code users.repository}, {@code users.service},
+ * {@code users.controller}) tagged with the method and the exception thrown, if any,
+ * so a slow request can be attributed to the database, the service logic or the
+ * web layer. Repository calls additionally count the rows they return and insert
+ * ({@code users.repository.rows.returned}, {@code users.repository.rows.inserted})
+ * and record the result size of each call ({@code users.repository.result.size}).
+ * </p>
+ * <p>
+ * Meters are created once per method and outcome and then reused, so the
+ * per-call cost is a map lookup and a clock read.
+ * </p>
+ */
+@Aspect
+@Component
+public class UserMetricsAspect {
+
+    private static final String NO_EXCEPTION = "none";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * Times repository calls and counts the rows they read and write.
+     */
+    @Around("execution(public * com.example.usermanagement.repository.UserRepository+.*(..))")
+    public Object measureRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        AtomicLong streamed = countStreamedUsers(joinPoint.getArgs());
+        Object result = time("users.repository", method, joinPoint, streamed != null ? joinPoint.getArgs() : null);
+        long returned = streamed != null ? streamed.get() : rowCount(result);
+        if (returned >= 0) {
+            counter("users.repository.rows.returned", method).increment(returned);
+            summary(method).record(returned);
+        }
+        if (method.startsWith("save")) {
+            counter("users.repository.rows.inserted", method).increment(insertedCount(joinPoint.getArgs()));
+        }
+        return result;
+    }
+
+    /**
+     * Times service calls.
+     */
+    @Around("execution(public * com.example.usermanagement.service.UserService.*(..))")
+    public Object measureService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("users.service", joinPoint.getSignature().getName(), joinPoint, null);
+    }
+
+    /**
+     * Times controller calls, excluding response serialization which is covered by {@code http.server.requests}.
+     */
+    @Around("execution(public * com.example.usermanagement.controller.UserController.*(..))")
+    public Object measureController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("users.controller", joinPoint.getSignature().getName(), joinPoint, null);
+    }
+
+    private Object time(String name, String method, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return args != null ? joinPoint.proceed(args) : joinPoint.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            timer(name, method, exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Wraps a streaming callback argument so that the users it receives are counted.
+     *
+     * @return Counter of streamed users, or {@code null} if the call has no user callback
+     */
+    @SuppressWarnings("unchecked")
+    private static AtomicLong countStreamedUsers(Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof Consumer<?> consumer) {
+                AtomicLong count = new AtomicLong();
+                Consumer<User> action = (Consumer<User>) consumer;
+                args[i] = (Consumer<User>) user -> {
+                    count.incrementAndGet();
+                    action.accept(user);
+                };
+                return count;
+            }
+        }
+        return null;
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private static long insertedCount(Object[] args) {
+        if (args.length == 1 && args[0] instanceof List<?> users) {
+            return users.size();
+        }
+        return 1;
+    }
+
+    private Timer timer(String name, String method, String exception) {
+        return timers.computeIfAbsent(name + '#' + method + '#' + exception, key -> Timer.builder(name)
+            .description("Time spent in " + name.substring("users.".length()) + " calls")
+            .tag("method", method)
+            .tag("exception", exception)
+            .register(meterRegistry));
+    }
+
+    private Counter counter(String name, String method) {
+        return counters.computeIfAbsent(name + '#' + method, key -> Counter.builder(name)
+            .baseUnit("rows")
+            .tag("method", method)
+            .register(meterRegistry));
+    }
+
+    private DistributionSummary summary(String method) {
+        return summaries.computeIfAbsent(method, key -> DistributionSummary.builder("users.repository.result.size")
+            .description("Rows returned by a single repository call")
+            .baseUnit("rows")
+            .tag("method", method)
+            .register(meterRegistry));
+    }
+}
@@ -0,0 +1,389 @@
+package com.example.usermanagement.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.validation.InvalidRequestException;
+
+/**
+ * User repository spread over several databases ("shards") by a hash of the email address.
+ * <p>
+ * A user is written to the shard chosen by its lowercased email, so lookups
+ * by email touch one shard and each shard's unique email index still
+ * guarantees uniqueness across all of them. Every shard allocates interleaved
+ * IDs ({@code shard + 1}, {@code shard + 1 + N}, ...) from its own
+ * {@link UserIdAllocator}, so IDs stay unique and a lookup by ID also touches
+ * a single shard.
+ * </p>
+ * <p>
+ * Reads that span users, such as listing, pagination and duplicate checks,
+ * are sent to all shards in parallel and merged in ID order. Each shard call
+ * runs on its own virtual thread, so the latency of a scatter-gather read is
+ * that of the slowest shard. The shard count cannot change without moving
+ * rows, because a user's shard depends on it.
+ * </p>
+ * <p>
+ * Each shard records its own changes in its own sequence. A change feed cursor
+ * therefore holds one sequence number per shard, joined with dots, and a page
+ * of changes takes changes from every shard in turn.
+ * </p>
+ */
+public class ShardedUserRepository extends UserRepository implements AutoCloseable {
+
+    private final List<DataSource> dataSources;
+
+    private final List<UserRepository> shards;
+
+    private final int pageSize;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Creates a repository over the given shards.
+     *
+     * @param dataSources     One data source per shard, in shard order
+     * @param exportFetchSize Rows fetched per round trip from each shard while streaming all users
+     * @param batchChunkSize  Statements per JDBC batch on each shard
+     * @param idBlockSize     IDs reserved per database call by each shard's allocator
+     */
+    public ShardedUserRepository(List<DataSource> dataSources, int exportFetchSize, int batchChunkSize, int idBlockSize) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.dataSources = List.copyOf(dataSources);
+        int count = this.dataSources.size();
+        List<UserRepository> repositories = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSources.get(k));
+            repositories.add(new UserRepository(jdbcTemplate, exportFetchSize, batchChunkSize,
+                new UserIdAllocator(jdbcTemplate, idBlockSize, count, k)));
+        }
+        this.shards = List.copyOf(repositories);
+        this.pageSize = Math.max(exportFetchSize, 1);
+    }
+
+    /**
+     * Returns the number of shards.
+     *
+     * @return Shard count
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Returns the shard a user with the given email address is stored on.
+     *
+     * @param email Email address
+     * @return Shard index, from 0 to {@link #getShardCount()} - 1
+     */
+    public int shardForEmail(String email) {
+        int hash = email.toLowerCase(Locale.ROOT).hashCode();
+        // Spread the bits of String.hashCode, whose low bits vary little for similar addresses.
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, shards.size());
+    }
+
+    /**
+     * Returns the shard that issued the given user ID.
+     *
+     * @param id User ID
+     * @return Shard index, from 0 to {@link #getShardCount()} - 1
+     */
+    public int shardForId(int id) {
+        return Math.floorMod(id - 1, shards.size());
+    }
+
+    /**
+     * Retrieves all users from every shard, ordered by ID.
+     *
+     * @return List of all users
+     */
+    @Override
+    public List<User> getAllUsers() {
+        return merge(scatter(UserRepository::getAllUsers), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the users on every shard, all shards in parallel.
+     *
+     * @return Number of users across all shards
+     */
+    @Override
+    public long countUsers() {
+        return scatter(UserRepository::countUsers).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Retrieves up to {@code limit} users with an ID greater than {@code afterId},
+     * asking each shard for {@code limit} users and keeping the lowest IDs.
+     *
+     * @param afterId Exclusive lower bound on the user ID
+     * @param limit   Maximum number of users to return
+     * @return List of users ordered by ascending ID
+     */
+    @Override
+    public List<User> getUsersAfter(int afterId, int limit) {
+        return merge(scatter(shard -> shard.getUsersAfter(afterId, limit)), limit);
+    }
+
+    /**
+     * Finds a user by ID on the shard that issued the ID.
+     *
+     * @param id User ID
+     * @return The user, or an empty Optional if no user has this ID
+     */
+    @Override
+    public Optional<User> findById(int id) {
+        return shards.get(shardForId(id)).findById(id);
+    }
+
+    /**
+     * Finds a user by email address on the shard the address hashes to.
+     *
+     * @param email Email address to look up
+     * @return The user, or an empty Optional if no user has this email
+     */
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return shards.get(shardForEmail(email)).findByEmail(email);
+    }
+
+    /**
+     * Returns which of the given email addresses already belong to a user,
+     * checking each address on its own shard, all shards in parallel.
+     *
+     * @param emails Email addresses to check
+     * @return The subset of addresses that are already taken
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Map<Integer, List<String>> byShard = emails.stream().collect(Collectors.groupingBy(this::shardForEmail));
+        Set<String> existing = new HashSet<>();
+        for (Set<String> found : scatter(byShard, UserRepository::findExistingEmails)) {
+            existing.addAll(found);
+        }
+        return existing;
+    }
+
+    /**
+     * Streams every user to the given action in ID order.
+     * <p>
+     * Users are read in keyset pages merged across shards, so memory use is
+     * bounded by one page per shard however many users there are.
+     * </p>
+     *
+     * @param action Callback invoked once per user
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        int afterId = 0;
+        List<User> page;
+        do {
+            page = getUsersAfter(afterId, pageSize);
+            page.forEach(action);
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    /**
+     * Returns the cursor of the latest change recorded on every shard.
+     *
+     * @return Cursor holding the position of every shard
+     */
+    @Override
+    public String getChangeCursor() {
+        return String.join(".", scatter(UserRepository::getChangeCursor));
+    }
+
+    /**
+     * Retrieves up to {@code limit} users changed after the given per-shard position of the change feed.
+     * <p>
+     * Every shard is read from its own position in parallel, and the page takes
+     * one change from each shard in turn until it is full, so a busy shard does
+     * not hold back the changes of the others. Changes of one shard keep their
+     * order; changes of different shards have no order between them.
+     * </p>
+     *
+     * @param since Cursor returned by a previous page, or {@code "0"} to read every change
+     * @param limit Maximum number of changes to return
+     * @return Changed users with the cursor to resume from
+     * @throws InvalidRequestException if the cursor is malformed or made for another number of shards
+     */
+    @Override
+    public UserChangePage getChangesAfter(String since, int limit) {
+        long[] after = parseShardCursor(since);
+        List<List<UserChange>> perShard = scatterByIndex(k -> shards.get(k).readChangesAfter(after[k], limit + 1));
+        int[] taken = new int[shards.size()];
+        List<User> users = new ArrayList<>();
+        boolean progress = true;
+        while (progress && users.size() < limit) {
+            progress = false;
+            for (int k = 0; k < shards.size() && users.size() < limit; k++) {
+                if (taken[k] < perShard.get(k).size()) {
+                    users.add(perShard.get(k).get(taken[k]++).user());
+                    progress = true;
+                }
+            }
+        }
+        long[] next = after.clone();
+        boolean hasMore = false;
+        for (int k = 0; k < shards.size(); k++) {
+            if (taken[k] > 0) {
+                next[k] = perShard.get(k).get(taken[k] - 1).seq();
+            }
+            hasMore |= taken[k] < perShard.get(k).size();
+        }
+        return new UserChangePage(users, Arrays.stream(next).mapToObj(Long::toString).collect(Collectors.joining(".")),
+            hasMore);
+    }
+
+    /**
+     * Saves a new user on the shard its email address hashes to.
+     *
+     * @param user The User object to be inserted
+     */
+    @Override
+    public void saveUser(User user) {
+        shards.get(shardForEmail(user.getEmail())).saveUser(user);
+    }
+
+    /**
+     * Saves several new users, sending each shard its share of the users as a
+     * JDBC batch, all shards in parallel.
+     * <p>
+     * Shards are written independently: if one shard fails, the users sent to
+     * the others may already be saved.
+     * </p>
+     *
+     * @param users The User objects to be inserted
+     */
+    @Override
+    public void saveUsers(List<User> users) {
+        Map<Integer, List<User>> byShard = users.stream().collect(Collectors.groupingBy(user -> shardForEmail(user.getEmail())));
+        scatter(byShard, (shard, shardUsers) -> {
+            shard.saveUsers(shardUsers);
+            return null;
+        });
+    }
+
+    /**
+     * Stops the scatter-gather threads and closes every shard's data source.
+     */
+    @Override
+    public void close() throws Exception {
+        executor.close();
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private <T> List<T> scatter(Function<UserRepository, T> call) {
+        return scatterByIndex(k -> call.apply(shards.get(k)));
+    }
+
+    /**
+     * Calls every shard by its index, all shards in parallel, returning the results in shard order.
+     */
+    private <T> List<T> scatterByIndex(IntFunction<T> call) {
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (int k = 0; k < shards.size(); k++) {
+            int shard = k;
+            futures.add(executor.submit(() -> call.apply(shard)));
+        }
+        return gather(futures);
+    }
+
+    /**
+     * Splits a change cursor into the position of every shard; {@code "0"} starts every shard from the beginning.
+     */
+    private long[] parseShardCursor(String cursor) {
+        long[] positions = new long[shards.size()];
+        if ("0".equals(cursor)) {
+            return positions;
+        }
+        String[] parts = cursor == null ? new String[0] : cursor.split("\\.", -1);
+        if (parts.length != positions.length) {
+            throw new InvalidRequestException("Invalid change cursor");
+        }
+        for (int k = 0; k < parts.length; k++) {
+            positions[k] = parseSequence(parts[k]);
+        }
+        return positions;
+    }
+
+    private <K, T> List<T> scatter(Map<Integer, K> argumentsByShard, ShardCall<K, T> call) {
+        List<Future<T>> futures = new ArrayList<>(argumentsByShard.size());
+        argumentsByShard.forEach((shard, arguments) ->
+            futures.add(executor.submit(() -> call.apply(shards.get(shard), arguments))));
+        return gather(futures);
+    }
+
+    /**
+     * Waits for every shard call and rethrows the first failure as thrown by the shard.
+     */
+    private static <T> List<T> gather(List<Future<T>> futures) {
+        List<T> results = new ArrayList<>(futures.size());
+        RuntimeException failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shards", ex);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    private static List<User> merge(List<List<User>> perShard, int limit) {
+        List<User> merged = new ArrayList<>(perShard.stream().mapToInt(List::size).sum());
+        perShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparingInt(User::getId));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * Call made on one shard with that shard's share of the arguments.
+     */
+    @FunctionalInterface
+    private interface ShardCall<K, T> {
+
+        T apply(UserRepository shard, K arguments);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.usermanagement.repository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out user IDs from blocks reserved in the {@code user_id_sequence} table (hi/lo allocation).
+ * <p>
+ * Each reservation moves the stored next ID forward by a whole block with one
+ * conditional {@code UPDATE}, so instances sharing the database never receive
+ * overlapping blocks. IDs within a block are handed out with an atomic
+ * increment, so threads take IDs without a lock or a database call, and an
+ * insert needs no generated-key round trip to learn its ID. IDs of a block
+ * left unused when the application stops are skipped, leaving gaps.
+ * </p>
+ * <p>
+ * The allocator is the only source of user IDs: the {@code users} table has no
+ * {@code AUTO_INCREMENT}, so every insert must supply an ID taken from here.
+ * An ID taken any other way may be handed out again by a later block.
+ * </p>
+ * <p>
+ * The sequence row is created on first use from the highest ID in the
+ * {@code users} table. With a stride greater than 1, as on the shards of a
+ * {@link ShardedUserRepository}, the allocator only hands out the IDs
+ * {@code offset + 1}, {@code offset + 1 + stride}, ...
+ * </p>
+ */
+@Component
+public class UserIdAllocator {
+
+    private static final String SEQUENCE_NAME = "users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${users.id.block-size:1000}")
+    private int blockSize = 1000;
+
+    private int stride = 1;
+
+    private int offset;
+
+    private final Lock reserveLock = new ReentrantLock();
+
+    private volatile Block block;
+
+    /**
+     * Creates an allocator whose dependencies are injected by Spring.
+     */
+    public UserIdAllocator() {
+    }
+
+    /**
+     * Creates an allocator on the given JdbcTemplate, outside of Spring's dependency
+     * injection, such as for one shard of a {@link ShardedUserRepository}.
+     *
+     * @param jdbcTemplate JdbcTemplate of the database holding the users and the sequence
+     * @param blockSize    Number of IDs reserved per database call
+     * @param stride       Distance between consecutive IDs
+     * @param offset       Remainder, plus one, of every ID divided by the stride
+     */
+    public UserIdAllocator(JdbcTemplate jdbcTemplate, int blockSize, int stride, int offset) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+        this.stride = stride;
+        this.offset = offset;
+    }
+
+    /**
+     * Returns an ID that no other call, thread or instance receives.
+     *
+     * @return New user ID
+     * @throws IllegalStateException if the ID range is exhausted
+     */
+    public int nextId() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next.getAndAdd(stride);
+                if (id < current.end) {
+                    return (int) id;
+                }
+            }
+            refill(current);
+        }
+    }
+
+    /**
+     * Replaces the exhausted block, unless another thread already has.
+     */
+    private void refill(Block exhausted) {
+        // A lock rather than synchronized, which would pin a virtual thread waiting on the database.
+        reserveLock.lock();
+        try {
+            if (block == exhausted) {
+                block = reserve();
+            }
+        } finally {
+            reserveLock.unlock();
+        }
+    }
+
+    private Block reserve() {
+        long size = (long) Math.max(blockSize, 1) * stride;
+        while (true) {
+            List<Long> stored = jdbcTemplate.queryForList(
+                "SELECT next_value FROM user_id_sequence WHERE name = ?", Long.class, SEQUENCE_NAME);
+            if (stored.isEmpty()) {
+                seed();
+                continue;
+            }
+            long start = stored.get(0);
+            if (start > Integer.MAX_VALUE) {
+                throw new IllegalStateException("User IDs are exhausted");
+            }
+            long end = Math.min(start + size, Integer.MAX_VALUE + 1L);
+            // Only moves the sequence if no other instance reserved a block since it was read.
+            int updated = jdbcTemplate.update("UPDATE user_id_sequence SET next_value = ? WHERE name = ? AND next_value = ?",
+                end, SEQUENCE_NAME, start);
+            if (updated == 1) {
+                return new Block(start, end);
+            }
+        }
+    }
+
+    /**
+     * Creates the sequence row with the first ID above every existing user that this allocator may issue.
+     */
+    private void seed() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        long max = maxId == null ? 0 : maxId;
+        long first = max + 1 + Math.floorMod(offset - max, stride);
+        try {
+            jdbcTemplate.update("INSERT INTO user_id_sequence (name, next_value) VALUES (?, ?)", SEQUENCE_NAME, first);
+        } catch (DuplicateKeyException ex) {
+            // Another instance seeded the sequence first.
+        }
+    }
+
+    /**
+     * Reserved IDs from {@code next} (inclusive) to {@code end} (exclusive).
+     */
+    private static final class Block {
+
+        private final AtomicLong next;
+
+        private final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -1,42 +1,361 @@
 package com.example.usermanagement.repository;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.usermanagement.dto.UserChangePage;
 import com.example.usermanagement.entity.User;
+import com.example.usermanagement.validation.InvalidRequestException;
 
 /**
  * Repository class for managing database operations related to users.
  * Provides methods to retrieve and save user records.
+ * <p>
+ * New users get their ID from the {@link UserIdAllocator} before they are
+ * inserted, so inserts, single or batched, never read back a generated key.
+ * The {@code users} table does not generate IDs; any other code inserting
+ * users must take their IDs from the allocator as well.
+ * </p>
+ * <p>
+ * Every insert also appends a row to the {@code user_changes} table in the same
+ * transaction, giving each change an increasing sequence number that clients
+ * can sync from with {@link #getChangesAfter(String, int)}. Sequence numbers
+ * are reserved from the {@code user_changes} row of the {@code user_id_sequence}
+ * table as the last step of the transaction. The row stays locked until the
+ * transaction ends, so writes take their numbers one after the other and a
+ * change never becomes visible behind one with a higher number.
+ * </p>
  */
 @Repository
 public class UserRepository {
 
+    private static final String INSERT_USER_SQL = "INSERT INTO users (id, name, email) VALUES (?, ?, ?)";
+
+    private static final String RECORD_CHANGE_SQL = "INSERT INTO user_changes (seq, user_id) VALUES (?, ?)";
+
+    private static final String CHANGE_SEQUENCE_NAME = "user_changes";
+
+    private static final String INVALID_CHANGE_CURSOR_MESSAGE = "Invalid change cursor";
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Value("${users.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    @Value("${users.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Autowired
+    private UserIdAllocator idAllocator;
+
+    /**
+     * Makes an insert and its change record atomic and orders change sequence numbers by commit;
+     * absent only when no transaction manager is configured.
+     */
+    @Autowired(required = false)
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Creates a repository whose dependencies are injected by Spring.
+     */
+    public UserRepository() {
+    }
+
+    /**
+     * Creates a repository on the given JdbcTemplate, outside of Spring's dependency
+     * injection, such as one shard of a {@link ShardedUserRepository}.
+     *
+     * @param jdbcTemplate    JdbcTemplate of the database holding the users table
+     * @param exportFetchSize Rows fetched per round trip by {@link #forEachUser}
+     * @param batchChunkSize  Statements per JDBC batch in {@link #saveUsers} and {@link #findExistingEmails}
+     * @param idAllocator     Source of the IDs of new users
+     */
+    public UserRepository(JdbcTemplate jdbcTemplate, int exportFetchSize, int batchChunkSize, UserIdAllocator idAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportFetchSize = exportFetchSize;
+        this.batchChunkSize = batchChunkSize;
+        this.idAllocator = idAllocator;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+    }
+
     /**
      * Retrieves a list of all users from the database.
      *
      * @return List of User objects retrieved from the database
      */
     public List<User> getAllUsers() {
-        String sql = "SELECT * FROM users";
-        return jdbcTemplate.query(sql, new BeanPropertyRowMapper<>(User.class));
+        String sql = "SELECT id, name, email FROM users";
+        return jdbcTemplate.query(sql, new UserRowMapper());
+    }
+
+    /**
+     * Counts the users in the database.
+     *
+     * @return Number of users
+     */
+    public long countUsers() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Retrieves up to {@code limit} users whose ID is greater than {@code afterId}, ordered by ID.
+     * <p>
+     * This is a keyset query on the primary key, so its cost depends only on the
+     * requested limit and not on how far into the table the caller has paged.
+     * </p>
+     *
+     * @param afterId Exclusive lower bound on the user ID (use 0 for the first page)
+     * @param limit   Maximum number of users to return
+     * @return List of User objects ordered by ascending ID
+     */
+    public List<User> getUsersAfter(int afterId, int limit) {
+        String sql = "SELECT id, name, email FROM users WHERE id > ? ORDER BY id LIMIT ?";
+        return jdbcTemplate.query(sql, new UserRowMapper(), afterId, limit);
+    }
+
+    /**
+     * Finds a single user by ID using the primary key index.
+     *
+     * @param id User ID
+     * @return The user, or an empty Optional if no user has this ID
+     */
+    public Optional<User> findById(int id) {
+        String sql = "SELECT id, name, email FROM users WHERE id = ?";
+        return jdbcTemplate.query(sql, new UserRowMapper(), id).stream().findFirst();
+    }
+
+    /**
+     * Finds a single user by email address using the unique email index.
+     *
+     * @param email Email address to look up
+     * @return The user, or an empty Optional if no user has this email
+     */
+    public Optional<User> findByEmail(String email) {
+        String sql = "SELECT id, name, email FROM users WHERE email = ?";
+        return jdbcTemplate.query(sql, new UserRowMapper(), email).stream().findFirst();
+    }
+
+    /**
+     * Returns which of the given email addresses already belong to a user.
+     * <p>
+     * Addresses are checked against the unique email index in chunks of the
+     * configured batch size, one query per chunk.
+     * </p>
+     *
+     * @param emails Email addresses to check
+     * @return The subset of addresses that are already taken
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        List<String> remaining = List.copyOf(emails);
+        int chunkSize = Math.max(batchChunkSize, 1);
+        for (int from = 0; from < remaining.size(); from += chunkSize) {
+            List<String> chunk = remaining.subList(from, Math.min(from + chunkSize, remaining.size()));
+            String sql = "SELECT email FROM users WHERE email IN ("
+                + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            existing.addAll(jdbcTemplate.queryForList(sql, String.class, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    /**
+     * Streams every user in the database to the given action, in ID order.
+     * <p>
+     * Rows are read through a forward-only, read-only cursor with the configured
+     * fetch size and handed to the action one at a time, so no list of users is
+     * ever built and memory use does not grow with the size of the table.
+     * </p>
+     *
+     * @param action Callback invoked once per user as rows are read
+     */
+    public void forEachUser(Consumer<User> action) {
+        String sql = "SELECT id, name, email FROM users ORDER BY id";
+        UserRowMapper rowMapper = new UserRowMapper();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(exportFetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(rowMapper.mapRow(rs, 0)));
+    }
+
+    /**
+     * Retrieves up to {@code limit} users changed after the given point of the change feed.
+     * <p>
+     * This is a keyset query on the change sequence, so its cost depends on the
+     * number of changes returned and not on the size of the table. Sequence
+     * numbers are assigned in commit order, so a client resuming from the
+     * returned cursor never misses a change committed after its last read.
+     * </p>
+     *
+     * @param since Cursor returned by a previous page, or {@code "0"} to read every change
+     * @param limit Maximum number of changes to return
+     * @return Changed users in sequence order, with the cursor to resume from
+     * @throws InvalidRequestException if the cursor is malformed
+     */
+    public UserChangePage getChangesAfter(String since, int limit) {
+        long after = parseSequence(since);
+        // Read one extra row to learn whether more changes follow without a COUNT query.
+        List<UserChange> changes = readChangesAfter(after, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        List<UserChange> page = hasMore ? changes.subList(0, limit) : changes;
+        long next = page.isEmpty() ? after : page.get(page.size() - 1).seq();
+        return new UserChangePage(page.stream().map(UserChange::user).toList(), Long.toString(next), hasMore);
+    }
+
+    /**
+     * Returns the cursor of the latest recorded change.
+     * <p>
+     * Reading the feed from this cursor returns only changes committed after
+     * this call, so a copy of the users loaded after taking the cursor can be
+     * kept current from it without missing a write.
+     * </p>
+     *
+     * @return Cursor for {@link #getChangesAfter(String, int)}
+     */
+    public String getChangeCursor() {
+        Long seq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM user_changes", Long.class);
+        return Long.toString(seq == null ? 0 : seq);
+    }
+
+    /**
+     * Reads up to {@code limit} changes with a sequence number greater than {@code since}, in sequence order.
+     */
+    List<UserChange> readChangesAfter(long since, int limit) {
+        String sql = "SELECT c.seq, u.id, u.name, u.email FROM user_changes c JOIN users u ON u.id = c.user_id "
+            + "WHERE c.seq > ? ORDER BY c.seq LIMIT ?";
+        UserRowMapper rowMapper = new UserRowMapper();
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new UserChange(rs.getLong("seq"), rowMapper.mapRow(rs, rowNum)),
+            since, limit);
+    }
+
+    /**
+     * Parses one sequence number of a change cursor.
+     *
+     * @throws InvalidRequestException if the value is not a non-negative number
+     */
+    static long parseSequence(String value) {
+        if (value != null) {
+            try {
+                long seq = Long.parseLong(value);
+                if (seq >= 0) {
+                    return seq;
+                }
+            } catch (NumberFormatException ex) {
+                // Falls through to the invalid cursor error below.
+            }
+        }
+        throw new InvalidRequestException(INVALID_CHANGE_CURSOR_MESSAGE);
     }
 
     /**
-     * Saves a new user record into the database.
+     * Saves a new user record into the database and records the change.
+     * <p>
+     * The user is given a new ID, which is set on the object before the insert;
+     * any ID it already had is ignored.
+     * </p>
      *
      * @param user The User object to be inserted
      */
     public void saveUser(User user) {
-        String sql = "INSERT INTO users (name, email) VALUES (?, ?)";
-        jdbcTemplate.update(sql, user.getName(), user.getEmail());
+        user.setId(idAllocator.nextId());
+        inTransaction(() -> {
+            jdbcTemplate.update(INSERT_USER_SQL, user.getId(), user.getName(), user.getEmail());
+            jdbcTemplate.update(RECORD_CHANGE_SQL, reserveChangeSequence(1), user.getId());
+        });
+    }
+
+    /**
+     * Saves several new user records using JDBC batch inserts and records the changes.
+     * <p>
+     * Users are sent in chunks of the configured batch size, so inserting many
+     * users costs one round trip per chunk instead of one per user. All users
+     * are saved in one transaction: if any insert fails, none is kept. Every
+     * user is given its new ID before the first batch is sent.
+     * </p>
+     *
+     * @param users The User objects to be inserted
+     */
+    public void saveUsers(List<User> users) {
+        users.forEach(user -> user.setId(idAllocator.nextId()));
+        int chunkSize = Math.max(batchChunkSize, 1);
+        inTransaction(() -> {
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, chunkSize, (ps, user) -> {
+                ps.setInt(1, user.getId());
+                ps.setString(2, user.getName());
+                ps.setString(3, user.getEmail());
+            });
+            long firstSeq = reserveChangeSequence(users.size());
+            int[] position = {0};
+            jdbcTemplate.batchUpdate(RECORD_CHANGE_SQL, users, chunkSize, (ps, user) -> {
+                ps.setLong(1, firstSeq + position[0]++);
+                ps.setInt(2, user.getId());
+            });
+        });
+    }
+
+    /**
+     * Reserves {@code count} consecutive change sequence numbers and returns the first.
+     * <p>
+     * The {@code UPDATE} locks the sequence row until the surrounding transaction
+     * ends, which is what orders sequence numbers by commit. It must therefore
+     * be the last step before the change rows are written, to hold the lock as
+     * briefly as possible.
+     * </p>
+     */
+    private long reserveChangeSequence(int count) {
+        String sql = "UPDATE user_id_sequence SET next_value = next_value + ? WHERE name = ?";
+        if (jdbcTemplate.update(sql, count, CHANGE_SEQUENCE_NAME) == 0) {
+            seedChangeSequence();
+            if (jdbcTemplate.update(sql, count, CHANGE_SEQUENCE_NAME) == 0) {
+                throw new IllegalStateException("The change sequence could not be created");
+            }
+        }
+        Long next = jdbcTemplate.queryForObject("SELECT next_value FROM user_id_sequence WHERE name = ?",
+            Long.class, CHANGE_SEQUENCE_NAME);
+        return next - count;
+    }
+
+    /**
+     * Creates the change sequence row with the first number above every recorded change.
+     */
+    private void seedChangeSequence() {
+        try {
+            jdbcTemplate.update("INSERT INTO user_id_sequence (name, next_value) "
+                + "SELECT ?, COALESCE(MAX(seq), 0) + 1 FROM user_changes", CHANGE_SEQUENCE_NAME);
+        } catch (DuplicateKeyException ex) {
+            // Another writer seeded the sequence first.
+        }
+    }
+
+    private void inTransaction(Runnable action) {
+        if (transactionTemplate == null) {
+            action.run();
+        } else {
+            transactionTemplate.executeWithoutResult(status -> action.run());
+        }
+    }
+
+    /**
+     * A change read from the feed, with its sequence number.
+     */
+    record UserChange(long seq, User user) {
     }
 }
-    
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.example.usermanagement.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import com.example.usermanagement.entity.User;
+
+/**
+ * Maps rows of the {@code users} table to {@link User} objects without reflection.
+ * <p>
+ * Column indexes are looked up once per result set and every row is then read
+ * by index and passed to the {@link User#User(int, String, String)} constructor.
+ * This avoids the property discovery, column name normalization and setter
+ * invocation that {@code BeanPropertyRowMapper} performs.
+ * </p>
+ * <p>
+ * Instances cache the column indexes of the result set they last mapped and are
+ * therefore not thread-safe; create one per query.
+ * </p>
+ */
+public class UserRowMapper implements RowMapper<User> {
+
+    private ResultSet resolvedFor;
+
+    private int idIndex;
+
+    private int nameIndex;
+
+    private int emailIndex;
+
+    /**
+     * Maps the current row of the result set to a User.
+     *
+     * @param rs     Result set positioned on the row to map
+     * @param rowNum Number of the current row
+     * @return User built from the id, name and email columns
+     * @throws SQLException if a column is missing or cannot be read
+     */
+    @Override
+    public User mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs != resolvedFor) {
+            idIndex = rs.findColumn("id");
+            nameIndex = rs.findColumn("name");
+            emailIndex = rs.findColumn("email");
+            resolvedFor = rs;
+        }
+        return new User(rs.getInt(idIndex), rs.getString(nameIndex), rs.getString(emailIndex));
+    }
+}
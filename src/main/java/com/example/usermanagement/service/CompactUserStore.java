@@ -0,0 +1,449 @@
+package com.example.usermanagement.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Memory-compact, read-only copy of every user, serving lookups and pages without the database.
+ * <p>
+ * Users are not kept as objects. Names and emails are packed as UTF-8 into one
+ * growable buffer, on or off the Java heap, and each user is a position in a
+ * few {@code int} arrays: its ID, where its strings start, and a slot in two
+ * open-addressing hash tables, one keyed by ID and one by email. A
+ * {@link User} is only created for a user being returned, so the heap holds
+ * no per-user objects at all.
+ * </p>
+ * <p>
+ * Positions follow arrival order, and a separate array lists them by ID to
+ * serve keyset pages. Users loaded at startup arrive in ID order and are
+ * appended; a user arriving out of order, which is routine with IDs allocated
+ * in blocks per instance, shifts the tail of that array by one.
+ * </p>
+ * <p>
+ * Like {@link UserSearchIndex}, the store is loaded once the application is
+ * ready. Users saved through this instance are added by {@link UserService}
+ * as soon as they are saved. Writes by other instances are read from the
+ * commit-ordered {@link UserRepository#getChangesAfter change feed} by the
+ * first read after the catch-up interval has passed. Until then such users
+ * are missing from the store; {@link UserService} looks up a user the store
+ * does not know in the database.
+ * </p>
+ * <p>
+ * Only active when {@code users.compact-store.enabled=true}. The buffer is
+ * addressed with {@code int} offsets, which limits the packed strings to 2 GB.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "users.compact-store.enabled", havingValue = "true")
+public class CompactUserStore {
+
+    private static final int CATCH_UP_PAGE_SIZE = 10_000;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.compact-store.off-heap:false}")
+    private boolean offHeap;
+
+    @Value("${users.compact-store.catch-up-interval:1s}")
+    private Duration catchUpInterval = Duration.ofSeconds(1);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+
+    /**
+     * IDs by position, in arrival order.
+     */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    /**
+     * Positions ordered by ascending ID.
+     */
+    private int[] order = new int[INITIAL_CAPACITY];
+
+    /**
+     * Start of the name of user {@code p} at {@code 2p}, of its email at {@code 2p + 1};
+     * the email ends where the next user's name starts.
+     */
+    private int[] starts = new int[2 * INITIAL_CAPACITY + 1];
+
+    private ByteBuffer data;
+
+    /**
+     * Open-addressing table of (ID, position + 1) pairs; a zero position marks a free slot.
+     */
+    private int[] idTable = new int[4 * INITIAL_CAPACITY];
+
+    /**
+     * Open-addressing table of position + 1 by email hash; zero marks a free slot.
+     */
+    private int[] emailTable = new int[2 * INITIAL_CAPACITY];
+
+    /**
+     * Change feed position the store is current with, or {@code null} before the first load.
+     */
+    private String changeCursor;
+
+    private volatile boolean loaded;
+
+    private volatile long lastCatchUp;
+
+    /**
+     * Loads every user from the database once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Finds a user by ID.
+     *
+     * @param id User ID
+     * @return The user, or an empty Optional if no user has this ID
+     */
+    public Optional<User> findById(int id) {
+        catchUp();
+        lock.readLock().lock();
+        try {
+            int position = positionOf(id);
+            return position < 0 ? Optional.empty() : Optional.of(materialize(position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds a user by email address, matching it exactly.
+     *
+     * @param email Email address to look up
+     * @return The user, or an empty Optional if no user has this email
+     */
+    public Optional<User> findByEmail(String email) {
+        catchUp();
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        lock.readLock().lock();
+        try {
+            int mask = emailTable.length - 1;
+            for (int slot = mix(hash(key)) & mask; emailTable[slot] != 0; slot = (slot + 1) & mask) {
+                int position = emailTable[slot] - 1;
+                if (emailEquals(position, key)) {
+                    return Optional.of(materialize(position));
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves up to {@code limit} users whose ID is greater than {@code afterId}, ordered by ID.
+     *
+     * @param afterId Exclusive lower bound on the user ID
+     * @param limit   Maximum number of users to return
+     * @return List of users ordered by ascending ID
+     */
+    public List<User> getUsersAfter(int afterId, int limit) {
+        catchUp();
+        lock.readLock().lock();
+        try {
+            int from = rankAfter(afterId);
+            int to = (int) Math.min(size, (long) from + limit);
+            List<User> users = new ArrayList<>(Math.max(to - from, 0));
+            for (int rank = from; rank < to; rank++) {
+                users.add(materialize(order[rank]));
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies users that were just saved, so that they are served right away.
+     * <p>
+     * Before the first load this does nothing: the load reads them from the database.
+     * </p>
+     *
+     * @param saved Users saved with their IDs set
+     */
+    public void addAll(Collection<User> saved) {
+        lock.writeLock().lock();
+        try {
+            if (changeCursor != null) {
+                saved.forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Loads every user on first use, then copies every change recorded since the last refresh.
+     */
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            if (changeCursor == null) {
+                // Take the feed position first, so changes committed during the load are replayed after it.
+                String cursor = userRepository.getChangeCursor();
+                int afterId = 0;
+                List<User> page;
+                do {
+                    page = userRepository.getUsersAfter(afterId, CATCH_UP_PAGE_SIZE);
+                    for (User user : page) {
+                        add(user);
+                        afterId = user.getId();
+                    }
+                } while (page.size() == CATCH_UP_PAGE_SIZE);
+                changeCursor = cursor;
+            }
+            UserChangePage changes;
+            do {
+                changes = userRepository.getChangesAfter(changeCursor, CATCH_UP_PAGE_SIZE);
+                changes.getUsers().forEach(this::add);
+                changeCursor = changes.getNextSince();
+            } while (changes.isHasMore());
+            lastCatchUp = System.nanoTime();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored users.
+     *
+     * @return Number of users in the store
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the memory allocated by the store, in and out of the heap, excluding fixed object headers.
+     *
+     * @return Bytes held by the arrays and the string buffer
+     */
+    public long getMemoryUsage() {
+        lock.readLock().lock();
+        try {
+            long arrays = 4L * (ids.length + order.length + starts.length + idTable.length + emailTable.length);
+            return arrays + (data == null ? 0 : data.capacity());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Refreshes the store unless it was loaded and caught up within the catch-up interval.
+     */
+    private void catchUp() {
+        if (isCaughtUp()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Another read may have caught up while this one waited for the lock.
+            if (!isCaughtUp()) {
+                refresh();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isCaughtUp() {
+        return loaded && System.nanoTime() - lastCatchUp < catchUpInterval.toNanos();
+    }
+
+    private void add(User user) {
+        if (positionOf(user.getId()) >= 0) {
+            // Saved through this instance and then read again from the change feed.
+            return;
+        }
+        byte[] name = user.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = user.getEmail().getBytes(StandardCharsets.UTF_8);
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            order = Arrays.copyOf(order, size * 2);
+            starts = Arrays.copyOf(starts, 4 * size + 1);
+        }
+        ensureData(name.length + email.length);
+        int rank = rankAfter(user.getId());
+        int position = size++;
+        int nameStart = starts[2 * position];
+        ids[position] = user.getId();
+        starts[2 * position + 1] = nameStart + name.length;
+        starts[2 * position + 2] = nameStart + name.length + email.length;
+        data.put(nameStart, name);
+        data.put(nameStart + name.length, email);
+        // Users loaded in ID order land at the end and move nothing.
+        System.arraycopy(order, rank, order, rank + 1, position - rank);
+        order[rank] = position;
+
+        if (2 * size > emailTable.length) {
+            rehash(2 * emailTable.length);
+        } else {
+            insert(position);
+        }
+    }
+
+    private void ensureData(int extra) {
+        int used = starts[2 * size];
+        if (data != null && data.capacity() - used >= extra) {
+            return;
+        }
+        long wanted = Math.max(data == null ? 64 * INITIAL_CAPACITY : 2L * data.capacity(), (long) used + extra);
+        if (wanted > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Compact user store is limited to " + Integer.MAX_VALUE + " bytes of strings");
+        }
+        ByteBuffer grown = offHeap ? ByteBuffer.allocateDirect((int) wanted) : ByteBuffer.allocate((int) wanted);
+        if (data != null) {
+            grown.put(0, data, 0, used);
+        }
+        data = grown;
+    }
+
+    /**
+     * Replaces both hash tables with tables of {@code emailSlots} slots and re-inserts every user.
+     */
+    private void rehash(int emailSlots) {
+        idTable = new int[2 * emailSlots];
+        emailTable = new int[emailSlots];
+        for (int position = 0; position < size; position++) {
+            insert(position);
+        }
+    }
+
+    /**
+     * Returns the position of the user with the given ID, or -1 if it is not stored.
+     */
+    private int positionOf(int id) {
+        int mask = idTable.length / 2 - 1;
+        for (int slot = mix(id) & mask; idTable[2 * slot + 1] != 0; slot = (slot + 1) & mask) {
+            if (idTable[2 * slot] == id) {
+                return idTable[2 * slot + 1] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of stored users whose ID is at most {@code id}, which is
+     * the rank of the first user with a greater ID.
+     */
+    private int rankAfter(int id) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[order[middle]] <= id) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void insert(int position) {
+        int idMask = idTable.length / 2 - 1;
+        int slot = mix(ids[position]) & idMask;
+        while (idTable[2 * slot + 1] != 0) {
+            slot = (slot + 1) & idMask;
+        }
+        idTable[2 * slot] = ids[position];
+        idTable[2 * slot + 1] = position + 1;
+
+        int emailMask = emailTable.length - 1;
+        slot = mix(emailHash(position)) & emailMask;
+        while (emailTable[slot] != 0) {
+            slot = (slot + 1) & emailMask;
+        }
+        emailTable[slot] = position + 1;
+    }
+
+    private User materialize(int position) {
+        int nameStart = starts[2 * position];
+        int emailStart = starts[2 * position + 1];
+        int end = starts[2 * position + 2];
+        return new User(ids[position], decode(nameStart, emailStart), decode(emailStart, end));
+    }
+
+    private String decode(int from, int to) {
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[to - from];
+        data.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean emailEquals(int position, byte[] key) {
+        int from = starts[2 * position + 1];
+        if (starts[2 * position + 2] - from != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(from + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int emailHash(int position) {
+        int hash = 1;
+        for (int i = starts[2 * position + 1]; i < starts[2 * position + 2]; i++) {
+            hash = 31 * hash + data.get(i);
+        }
+        return hash;
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = 1;
+        for (byte b : bytes) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * Spreads the bits of a hash so that sequential IDs and similar emails do not cluster in the tables.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x45d9f3b;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
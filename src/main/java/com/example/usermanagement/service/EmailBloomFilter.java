@@ -0,0 +1,332 @@
+package com.example.usermanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.usermanagement.repository.UserRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory Bloom filter over every user's email address, placed in front of
+ * the database check for addresses that are already taken.
+ * <p>
+ * An address the filter has never seen is certainly free, so creating a user
+ * with a new address needs no existence query; only addresses the filter
+ * reports as possibly taken are checked against the unique email index.
+ * Addresses are lowercased before hashing, so a database comparing emails
+ * without case still never holds an address the filter misses.
+ * </p>
+ * <p>
+ * The filter is built in the background once the application is ready, sized
+ * for twice the users in the table at {@code users.email-filter.false-positive-rate};
+ * until then every address is checked in the database. Addresses saved by this
+ * instance are added as they are inserted, and the filter is rebuilt at twice
+ * the size once it holds more addresses than it was sized for. Addresses saved
+ * by other instances are not seen, in which case the unique email index still
+ * rejects the insert.
+ * </p>
+ * <p>
+ * Published metrics: {@code users.email.filter.checks} by result,
+ * {@code users.email.filter.false.positives}, the observed
+ * {@code users.email.filter.false.positive.rate} among free addresses, the
+ * {@code users.email.filter.expected.false.positive.rate} for the current fill,
+ * {@code users.email.filter.size} and {@code users.email.filter.memory}.
+ * </p>
+ */
+@Component
+public class EmailBloomFilter implements MeterBinder {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${users.email-filter.min-capacity:100000}")
+    private long minCapacity = 100_000;
+
+    /**
+     * Filter answering checks, or {@code null} until the first build completes.
+     */
+    private volatile Bits bits;
+
+    /**
+     * Filter being built, which also receives every address added meanwhile.
+     */
+    private volatile Bits pending;
+
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    /**
+     * Serializes rebuilds; a lock rather than {@code synchronized}, which would pin
+     * the virtual thread running a background rebuild to its carrier.
+     */
+    private final Lock rebuildLock = new ReentrantLock();
+
+    private final AtomicLong definitelyNew = new AtomicLong();
+
+    private final AtomicLong possiblyTaken = new AtomicLong();
+
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    /**
+     * Starts building the filter in the background once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuildInBackground();
+    }
+
+    /**
+     * Returns which of the given email addresses already belong to a user.
+     * <p>
+     * Only the addresses the filter cannot rule out are looked up with
+     * {@link UserRepository#findExistingEmails}; if there are none, the
+     * database is not queried at all.
+     * </p>
+     *
+     * @param emails Email addresses to check
+     * @return The subset of addresses that are already taken
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Bits current = bits;
+        if (current == null) {
+            return userRepository.findExistingEmails(emails);
+        }
+        List<String> candidates = new ArrayList<>();
+        for (String email : emails) {
+            if (current.mightContain(normalize(email))) {
+                candidates.add(email);
+            }
+        }
+        Set<String> distinct = new HashSet<>(emails);
+        Set<String> distinctCandidates = new HashSet<>(candidates);
+        definitelyNew.addAndGet(distinct.size() - distinctCandidates.size());
+        possiblyTaken.addAndGet(distinctCandidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = userRepository.findExistingEmails(candidates);
+        falsePositives.addAndGet(distinctCandidates.size() - existing.size());
+        return existing;
+    }
+
+    /**
+     * Records that a user with the given email address has been saved.
+     *
+     * @param email Email address of the new user
+     */
+    public void add(String email) {
+        String key = normalize(email);
+        // Read the filter being built first: once it replaces the current one, it is cleared.
+        Bits next = pending;
+        if (next != null) {
+            next.put(key);
+        }
+        Bits current = bits;
+        if (current != null && current.put(key) > current.capacity) {
+            rebuildInBackground();
+        }
+    }
+
+    /**
+     * Rebuilds the filter from every email address in the database, sized for the current number of users.
+     * <p>
+     * Checks keep using the previous filter until the new one is complete.
+     * </p>
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Bits next = new Bits(Math.max(2 * userRepository.countUsers(), minCapacity), falsePositiveRate);
+            pending = next;
+            try {
+                userRepository.forEachUser(user -> next.put(normalize(user.getEmail())));
+                bits = next;
+            } finally {
+                pending = null;
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Returns whether the filter has been built and answers checks.
+     *
+     * @return {@code true} once the first build has completed
+     */
+    public boolean isReady() {
+        return bits != null;
+    }
+
+    /**
+     * Returns the number of email addresses added to the filter.
+     *
+     * @return Number of addresses, 0 before the first build
+     */
+    public long size() {
+        Bits current = bits;
+        return current == null ? 0 : current.count.get();
+    }
+
+    /**
+     * Returns the memory taken by the filter's bits.
+     *
+     * @return Bytes allocated for the filter, 0 before the first build
+     */
+    public long getMemoryUsage() {
+        Bits current = bits;
+        return current == null ? 0 : 8L * current.words.length();
+    }
+
+    /**
+     * Returns the share of free addresses that the filter could not rule out and were looked up in vain.
+     *
+     * @return Observed false-positive rate, 0 before any free address has been checked
+     */
+    public double getFalsePositiveRate() {
+        long free = definitelyNew.get() + falsePositives.get();
+        return free == 0 ? 0 : (double) falsePositives.get() / free;
+    }
+
+    /**
+     * Returns the false-positive rate expected from the filter's size and the addresses it holds.
+     *
+     * @return Expected false-positive rate, 1 before the first build
+     */
+    public double getExpectedFalsePositiveRate() {
+        Bits current = bits;
+        return current == null ? 1 : current.expectedFalsePositiveRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("users.email.filter.checks", definitelyNew, AtomicLong::get)
+            .tag("result", "new").register(registry);
+        FunctionCounter.builder("users.email.filter.checks", possiblyTaken, AtomicLong::get)
+            .tag("result", "possibly_taken").register(registry);
+        FunctionCounter.builder("users.email.filter.false.positives", falsePositives, AtomicLong::get)
+            .register(registry);
+        Gauge.builder("users.email.filter.false.positive.rate", this, EmailBloomFilter::getFalsePositiveRate)
+            .register(registry);
+        Gauge.builder("users.email.filter.expected.false.positive.rate", this, EmailBloomFilter::getExpectedFalsePositiveRate)
+            .register(registry);
+        Gauge.builder("users.email.filter.size", this, EmailBloomFilter::size)
+            .register(registry);
+        Gauge.builder("users.email.filter.memory", this, EmailBloomFilter::getMemoryUsage)
+            .baseUnit("bytes").register(registry);
+    }
+
+    private void rebuildInBackground() {
+        if (building.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("email-filter-build").start(() -> {
+                try {
+                    rebuild();
+                } finally {
+                    building.set(false);
+                }
+            });
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Fixed-size bit set with the number of hash functions that minimizes false
+     * positives for its capacity; bits are set atomically so adds need no lock.
+     */
+    private static final class Bits {
+
+        private final AtomicLongArray words;
+
+        private final long bitCount;
+
+        private final int hashes;
+
+        private final long capacity;
+
+        private final AtomicLong count = new AtomicLong();
+
+        Bits(long capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBits + 63) / 64)));
+            this.bitCount = 64L * words.length();
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        /**
+         * Sets the bits of the key and returns the number of keys added so far.
+         */
+        long put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.accumulateAndGet(word, mask, (value, set) -> value | set);
+                }
+            }
+            return count.incrementAndGet();
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-hashes * (double) count.get() / bitCount), hashes);
+        }
+
+        /**
+         * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer
+         * so that both halves can serve as independent hashes.
+         */
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
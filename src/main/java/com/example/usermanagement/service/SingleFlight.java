@@ -0,0 +1,86 @@
+package com.example.usermanagement.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one.
+ * <p>
+ * The first caller for a key runs the loader; callers arriving while it runs
+ * wait for it and receive the same result, or the same exception, instead of
+ * running the loader again. Nothing is kept once the call completes, so a
+ * caller arriving afterwards starts a new call. This bounds the load a burst
+ * of identical reads puts on the database to one query per key at a time;
+ * caching the results is left to the caller.
+ * </p>
+ *
+ * @param <K> Key identifying identical calls
+ * @param <V> Result of a call
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the result of the call in flight for the key, or runs the loader if there is none.
+     *
+     * @param key    Key of the call
+     * @param loader Call to run when no identical call is in flight
+     * @return Result of the loader, possibly run by another thread
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = calls.putIfAbsent(key, call);
+        if (inFlight != null) {
+            return join(inFlight);
+        }
+        try {
+            V result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    /**
+     * Stops callers from joining the calls now in flight.
+     * <p>
+     * Call after a write, so every read that starts once the write is done
+     * runs a new call and sees it. Callers already waiting still receive the
+     * result of the call they joined.
+     * </p>
+     */
+    public void forgetAll() {
+        calls.clear();
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return Number of keys with a running call
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.usermanagement.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.example.usermanagement.dto.BatchItemError;
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.IngestionStatus;
+import com.example.usermanagement.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Write-behind queue for user creation.
+ * <p>
+ * Validated users are accepted into a bounded in-memory queue and a single
+ * background drainer writes them in batches through {@link UserService#saveUsers(List)}.
+ * When the queue is full, new users are refused so that the caller can apply
+ * backpressure. On shutdown the queue stops accepting users and flushes
+ * everything already accepted before the data source is closed.
+ * </p>
+ * <p>
+ * A write failing with a {@link TransientDataAccessException}, such as a lock
+ * or connection timeout, is retried with a doubling backoff. If a batch still
+ * fails, its users are written one at a time, so only the users that cannot
+ * be saved are marked {@code FAILED}.
+ * </p>
+ * <p>
+ * Only active when {@code users.write-behind.enabled=true}. Accepted users live
+ * only in memory until they are written, so a crash loses the pending ones.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "users.write-behind.enabled", havingValue = "true")
+public class UserIngestionQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(UserIngestionQueue.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @Value("${users.write-behind.capacity:10000}")
+    private int capacity = 10000;
+
+    @Value("${users.write-behind.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${users.write-behind.status-ttl:10m}")
+    private Duration statusTtl = Duration.ofMinutes(10);
+
+    @Value("${users.write-behind.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${users.write-behind.retry-backoff:100ms}")
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    private BlockingQueue<Entry> queue;
+
+    private Cache<String, IngestionStatus> statuses;
+
+    private Thread drainer;
+
+    private volatile boolean accepting;
+
+    private volatile boolean running;
+
+    /**
+     * Accepts a user for asynchronous creation.
+     *
+     * @param user Validated user to create
+     * @return Pending status with the tracking ID, or empty if the queue is full or shutting down
+     */
+    public Optional<IngestionStatus> submit(User user) {
+        if (!accepting) {
+            return Optional.empty();
+        }
+        String trackingId = UUID.randomUUID().toString();
+        IngestionStatus status = new IngestionStatus(trackingId, IngestionStatus.State.PENDING, Map.of());
+        statuses.put(trackingId, status);
+        if (!queue.offer(new Entry(trackingId, user))) {
+            statuses.invalidate(trackingId);
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    /**
+     * Looks up the progress of a queued user creation.
+     *
+     * @param trackingId Identifier returned by {@link #submit(User)}
+     * @return Current status, or empty if the ID is unknown or its status has expired
+     */
+    public Optional<IngestionStatus> getStatus(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+
+    /**
+     * Number of users accepted but not yet taken by the drainer.
+     *
+     * @return Current queue depth
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(capacity);
+        statuses = Caffeine.newBuilder()
+            .maximumSize(Math.max(capacity, 1) * 10L)
+            .expireAfterWrite(statusTtl)
+            .build();
+        running = true;
+        accepting = true;
+        drainer = Thread.ofPlatform().name("user-ingestion").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        try {
+            drainer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, so that no request can be accepted once the final flush has started.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // Keep draining: accepted users must still be written before shutdown.
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        List<User> users = new ArrayList<>(batch.size());
+        batch.forEach(entry -> users.add(entry.user()));
+        try {
+            record(batch, saveWithRetry(users));
+            return;
+        } catch (RuntimeException ex) {
+            log.warn("Failed to write {} queued users as one batch, writing them one at a time", batch.size(), ex);
+        }
+        for (Entry entry : batch) {
+            try {
+                record(List.of(entry), saveWithRetry(List.of(entry.user())));
+            } catch (RuntimeException ex) {
+                log.error("Failed to write queued user {}", entry.trackingId(), ex);
+                statuses.put(entry.trackingId(), new IngestionStatus(entry.trackingId(),
+                    IngestionStatus.State.FAILED, Map.of("user", "User could not be saved")));
+            }
+        }
+    }
+
+    /**
+     * Saves the users, retrying transient failures up to {@code users.write-behind.max-attempts} times in all.
+     */
+    private BatchResult saveWithRetry(List<User> users) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return userService.saveUsers(users);
+            } catch (TransientDataAccessException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                log.warn("Transient failure writing {} queued users, attempt {} of {}",
+                    users.size(), attempt, maxAttempts, ex);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoff.multipliedBy(1L << Math.min(attempt - 1, 10)));
+        } catch (InterruptedException ex) {
+            // Retry at once; the drainer only stops once the queue is empty.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Marks the users rejected in {@code result} as FAILED and the others as CREATED.
+     */
+    private void record(List<Entry> batch, BatchResult result) {
+        for (BatchItemError error : result.getErrors()) {
+            Entry entry = batch.get(error.getIndex());
+            statuses.put(entry.trackingId(),
+                new IngestionStatus(entry.trackingId(), IngestionStatus.State.FAILED, error.getErrors()));
+        }
+        for (Entry entry : batch) {
+            statuses.asMap().computeIfPresent(entry.trackingId(), (id, status) ->
+                status.getState() == IngestionStatus.State.PENDING
+                    ? new IngestionStatus(id, IngestionStatus.State.CREATED, Map.of(), entry.user().getId())
+                    : status);
+        }
+    }
+
+    private record Entry(String trackingId, User user) {
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.usermanagement.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.validation.InvalidRequestException;
+
+/**
+ * In-memory trigram index over user names and email addresses for type-ahead search.
+ * <p>
+ * Every name and email is lowercased, prefixed with a start-of-value marker and
+ * split into overlapping three-character grams; each gram maps to the sorted
+ * list of users containing it. A query is answered by intersecting the lists
+ * of its own grams and checking the few surviving candidates, so no query ever
+ * scans the table. Grams that include the start marker find prefix matches,
+ * which rank ahead of matches elsewhere in a name or email.
+ * </p>
+ * <p>
+ * The index is built once the application is ready. Users saved through this
+ * instance are added by {@link UserService} as soon as they are saved. Writes
+ * by other instances are read from the {@link UserRepository#getChangesAfter
+ * change feed}, whose numbers follow commit order, by the first search after
+ * the catch-up interval has passed. Users are never updated or deleted through
+ * this service, so appending is enough; a user that arrives both ways is
+ * indexed once.
+ * </p>
+ */
+@Component
+public class UserSearchIndex {
+
+    /**
+     * Shortest query the index can answer.
+     */
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final char START = '\u0002';
+
+    private static final int CATCH_UP_PAGE_SIZE = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${users.search.build-on-startup:true}")
+    private boolean buildOnStartup = true;
+
+    @Value("${users.search.catch-up-interval:1s}")
+    private Duration catchUpInterval = Duration.ofSeconds(1);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    private User[] users = new User[1024];
+
+    private int size;
+
+    private final Set<Integer> indexedIds = new HashSet<>();
+
+    /**
+     * Change feed position the index is current with, or {@code null} before the first build.
+     */
+    private String changeCursor;
+
+    private volatile boolean built;
+
+    private volatile long lastCatchUp;
+
+    /**
+     * Builds the index from every user in the database once the application is ready.
+     * <p>
+     * Readiness is only reported after this returns. With
+     * {@code users.search.build-on-startup=false} the build is left to the first search instead,
+     * and the event is not delivered at all, so a lazily initialized index is not created by it.
+     * </p>
+     */
+    @EventListener(value = ApplicationReadyEvent.class,
+        condition = "@environment.getProperty('users.search.build-on-startup', T(Boolean), true)")
+    public void build() {
+        if (buildOnStartup) {
+            refresh();
+        }
+    }
+
+    /**
+     * Finds users whose name or email contains the query, ignoring case.
+     * <p>
+     * Users whose name or email starts with the query come first, then users
+     * matching elsewhere. Each group is in the order users were indexed: by ID
+     * for the users read at startup, then by arrival. Queries of
+     * {@value #MIN_QUERY_LENGTH} characters only match prefixes.
+     * </p>
+     *
+     * @param query Text to look for, at least {@value #MIN_QUERY_LENGTH} characters
+     * @param limit Maximum number of users to return
+     * @return Up to {@code limit} matching users, best matches first
+     * @throws InvalidRequestException if the query is too short
+     */
+    public List<User> search(String query, int limit) {
+        String text = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (text.length() < MIN_QUERY_LENGTH) {
+            throw new InvalidRequestException("Query must be at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        refreshIfDue();
+        List<User> results = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            collect(START + text, text, true, limit, results);
+            if (results.size() < limit && text.length() >= GRAM_LENGTH) {
+                collect(text, text, false, limit, results);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    /**
+     * Indexes users that were just saved, so that they can be found right away.
+     * <p>
+     * Before the first build this does nothing: the build reads them from the database.
+     * </p>
+     *
+     * @param saved Users saved with their IDs set
+     */
+    public void addAll(Collection<User> saved) {
+        lock.writeLock().lock();
+        try {
+            if (changeCursor != null) {
+                saved.forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the index on first use, then indexes every change recorded since the last refresh.
+     */
+    public void refresh() {
+        lock.writeLock().lock();
+        try {
+            if (changeCursor == null) {
+                // Take the feed position first, so changes committed during the load are replayed after it.
+                String cursor = userRepository.getChangeCursor();
+                int afterId = 0;
+                List<User> page;
+                do {
+                    page = userRepository.getUsersAfter(afterId, CATCH_UP_PAGE_SIZE);
+                    for (User user : page) {
+                        add(user);
+                        afterId = user.getId();
+                    }
+                } while (page.size() == CATCH_UP_PAGE_SIZE);
+                changeCursor = cursor;
+            }
+            UserChangePage changes;
+            do {
+                changes = userRepository.getChangesAfter(changeCursor, CATCH_UP_PAGE_SIZE);
+                changes.getUsers().forEach(this::add);
+                changeCursor = changes.getNextSince();
+            } while (changes.isHasMore());
+            lastCatchUp = System.nanoTime();
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return Number of users in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Refreshes the index unless it was built and caught up within the catch-up interval.
+     */
+    private void refreshIfDue() {
+        if (isCaughtUp()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Another search may have caught up while this one waited for the lock.
+            if (!isCaughtUp()) {
+                refresh();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isCaughtUp() {
+        return built && System.nanoTime() - lastCatchUp < catchUpInterval.toNanos();
+    }
+
+    private void add(User user) {
+        if (!indexedIds.add(user.getId())) {
+            return;
+        }
+        if (size == users.length) {
+            users = Arrays.copyOf(users, size * 2);
+        }
+        int doc = size++;
+        users[doc] = user;
+        addGrams(doc, user.getName());
+        addGrams(doc, user.getEmail());
+    }
+
+    private void addGrams(int doc, String value) {
+        if (value == null) {
+            return;
+        }
+        String text = START + value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), key -> new Postings()).add(doc);
+        }
+    }
+
+    /**
+     * Appends to {@code results} the users holding every gram of {@code grams}
+     * that really match, until {@code limit} results have been collected.
+     */
+    private void collect(String grams, String text, boolean prefix, int limit, List<User> results) {
+        int count = grams.length() - GRAM_LENGTH + 1;
+        if (count < 1) {
+            return;
+        }
+        Postings[] lists = new Postings[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = postings.get(gram(grams, i));
+            if (lists[i] == null) {
+                return;
+            }
+        }
+        // Walk the rarest list and probe the others, rarest first.
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        Postings rarest = lists[0];
+        for (int i = 0; i < rarest.size && results.size() < limit; i++) {
+            int doc = rarest.docs[i];
+            if (!containsAll(lists, doc)) {
+                continue;
+            }
+            User user = users[doc];
+            boolean startsWith = startsWith(user.getName(), text) || startsWith(user.getEmail(), text);
+            if (prefix ? startsWith : !startsWith && (contains(user.getName(), text) || contains(user.getEmail(), text))) {
+                results.add(user);
+            }
+        }
+    }
+
+    private static boolean containsAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(String value, String text) {
+        return value != null && value.regionMatches(true, 0, text, 0, text.length());
+    }
+
+    private static boolean contains(String value, String text) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i + text.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long gram(String text, int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+
+    /**
+     * Growable, ascending list of document numbers sharing one gram.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+
+        private int size;
+
+        void add(int doc) {
+            // A value may repeat a gram; documents are added in order, so checking the tail is enough.
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size + (size >> 1) + 1);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
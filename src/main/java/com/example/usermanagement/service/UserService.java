@@ -1,28 +1,473 @@
     package com.example.usermanagement.service;
 
+    import java.nio.charset.StandardCharsets;
+    import java.util.ArrayList;
+    import java.util.Base64;
+    import java.util.Comparator;
+    import java.util.HashMap;
+    import java.util.HashSet;
     import java.util.List;
+    import java.util.Locale;
+    import java.util.Map;
+    import java.util.Optional;
+    import java.util.Set;
+    import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.validation.Errors;
 
+import com.example.usermanagement.config.CacheConfig;
+import com.example.usermanagement.dto.BatchItemError;
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.dto.UserPage;
 import com.example.usermanagement.entity.User;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.validation.InvalidRequestException;
+import com.example.usermanagement.validation.UserValidator;
 
     @Service
     public class UserService {
 
+        /**
+         * Page size used when the caller does not specify a limit.
+         */
+        public static final int DEFAULT_PAGE_SIZE = 50;
+
+        /**
+         * Largest page size a caller may request.
+         */
+        public static final int MAX_PAGE_SIZE = 1000;
+
+        /**
+         * Error reported when an email address already belongs to another user.
+         */
+        public static final String DUPLICATE_EMAIL_MESSAGE = "Email already exists";
+
+        /**
+         * Number of search results returned when the caller does not specify a limit.
+         */
+        public static final int DEFAULT_SEARCH_LIMIT = 10;
+
+        /**
+         * Largest number of search results a caller may request.
+         */
+        public static final int MAX_SEARCH_LIMIT = 100;
+
+        /**
+         * Number of changes returned when the caller does not specify a limit.
+         */
+        public static final int DEFAULT_CHANGES_LIMIT = 1000;
+
+        /**
+         * Largest number of changes a caller may request at once.
+         */
+        public static final int MAX_CHANGES_LIMIT = 10000;
+
+        private static final String CURSOR_PREFIX = "id:";
+
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private UserValidator validator;
+
+        /**
+         * Resolved on first use, so that with lazy initialization the index is only created when needed.
+         */
+        @Lazy
+        @Autowired
+        private UserSearchIndex searchIndex;
+
+        @Autowired
+        private EmailBloomFilter emailFilter;
+
+        /**
+         * Read-serving copy of the users, present only when {@code users.compact-store.enabled=true}.
+         */
+        @Autowired(required = false)
+        private CompactUserStore compactStore;
+
+        @Value("${users.batch.max-size:10000}")
+        private int batchMaxSize = 10000;
+
+        /**
+         * Concurrent identical reads share one repository call; see {@link SingleFlight}.
+         */
+        private final SingleFlight<String, UserPage> pageFlights = new SingleFlight<>();
+
+        private final SingleFlight<Integer, Optional<User>> userByIdFlights = new SingleFlight<>();
+
+        private final SingleFlight<String, Optional<User>> userByEmailFlights = new SingleFlight<>();
+
+        private final SingleFlight<String, UserChangePage> changeFlights = new SingleFlight<>();
+
+        /**
+         * Retrieves every user.
+         *
+         * @return List of all users
+         */
         public List<User> getAllUsers() {
             return userRepository.getAllUsers();
         }
 
-        // Add this method to save a user
+        /**
+         * Returns the current version of a page of users, without reading the users table.
+         * <p>
+         * The version is the position of the {@link UserRepository#getChangeCursor()
+         * change feed} combined with the page bounds. Every insert, by any instance,
+         * moves the feed forward, so the version changes whenever a page may have
+         * changed and is the same on every instance.
+         * </p>
+         *
+         * @param after Opaque cursor returned by a previous page, or {@code null} for the first page
+         * @param limit Maximum number of users on the page (1 to {@value #MAX_PAGE_SIZE})
+         * @return Opaque version tag of the page
+         * @throws InvalidRequestException if the limit is out of range or the cursor is malformed
+         */
+        public String getPageVersion(String after, int limit) {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            return userRepository.getChangeCursor() + "-" + decodeCursor(after) + "-" + limit;
+        }
+
+        /**
+         * Retrieves one page of users using keyset pagination on the user ID.
+         * <p>
+         * Pages are served from the {@value CacheConfig#USER_PAGES} cache when present,
+         * keyed by their version, so a page read before a write is never served
+         * under a version taken after it. On a miss, concurrent requests for the
+         * same page share a single query.
+         * </p>
+         *
+         * @param after   Opaque cursor returned by a previous page, or {@code null} for the first page
+         * @param limit   Maximum number of users to return (1 to {@value #MAX_PAGE_SIZE})
+         * @param version Version of the page, as returned by {@link #getPageVersion(String, int)} for the same bounds
+         * @return Page of users with the cursor for the next page, at least as recent as {@code version}
+         * @throws InvalidRequestException if the limit is out of range or the cursor is malformed
+         */
+        @Cacheable(cacheNames = CacheConfig.USER_PAGES, key = "#version")
+        public UserPage getUsersPage(String after, int limit, String version) {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            int afterId = decodeCursor(after);
+            return pageFlights.execute(version, () -> loadPage(afterId, limit));
+        }
+
+        /**
+         * Streams every user to the given action without loading the table into memory.
+         *
+         * @param action Callback invoked once per user, in ID order
+         */
+        public void exportUsers(Consumer<User> action) {
+            userRepository.forEachUser(action);
+        }
+
+        /**
+         * Retrieves the users inserted or changed after the given point of the change feed.
+         * <p>
+         * Clients keeping a copy of the users pass the {@code nextSince} of the
+         * previous response, so each sync reads only what changed since. Clients
+         * polling from the same point at the same time share a single query.
+         * </p>
+         *
+         * @param since Cursor from a previous response, or {@code "0"} to read every change
+         * @param limit Maximum number of changes to return (1 to {@value #MAX_CHANGES_LIMIT})
+         * @return Changed users in the order of their changes, with the cursor to resume from
+         * @throws InvalidRequestException if the cursor is malformed or the limit is out of range
+         */
+        public UserChangePage getChanges(String since, int limit) {
+            if (limit < 1 || limit > MAX_CHANGES_LIMIT) {
+                throw new InvalidRequestException("Limit must be between 1 and " + MAX_CHANGES_LIMIT);
+            }
+            return changeFlights.execute(since + ":" + limit, () -> userRepository.getChangesAfter(since, limit));
+        }
+
+        /**
+         * Searches user names and email addresses for the given text, ignoring case.
+         * <p>
+         * Answered from the in-memory {@link UserSearchIndex}; users whose name or
+         * email starts with the query are returned first.
+         * </p>
+         *
+         * @param query Text to look for, at least {@value UserSearchIndex#MIN_QUERY_LENGTH} characters
+         * @param limit Maximum number of users to return (1 to {@value #MAX_SEARCH_LIMIT})
+         * @return Matching users, best matches first
+         * @throws InvalidRequestException if the query is too short or the limit is out of range
+         */
+        public List<User> searchUsers(String query, int limit) {
+            if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+                throw new InvalidRequestException("Limit must be between 1 and " + MAX_SEARCH_LIMIT);
+            }
+            return searchIndex.search(query, limit);
+        }
+
+        /**
+         * Retrieves a single user by ID.
+         * <p>
+         * Served from the {@link CompactUserStore} when it is enabled; a user the
+         * store does not hold yet, such as one just saved by another instance, is
+         * looked up in the database. Misses are not cached, so a user inserted by
+         * another instance, whose write evicts nothing here, is found on the next lookup.
+         * </p>
+         *
+         * @param id User ID
+         * @return The user, or an empty Optional if no user has this ID
+         */
+        // #result is the content of the Optional, null when no user was found.
+        @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, unless = "#result == null")
+        public Optional<User> getUserById(int id) {
+            if (compactStore != null) {
+                Optional<User> stored = compactStore.findById(id);
+                if (stored.isPresent()) {
+                    return stored;
+                }
+            }
+            return userByIdFlights.execute(id, () -> userRepository.findById(id));
+        }
+
+        /**
+         * Retrieves a single user by email address.
+         * <p>
+         * Served from the {@link CompactUserStore} when it is enabled; a user the
+         * store does not hold yet, such as one just saved by another instance, is
+         * looked up in the database. Misses are not cached, so a user inserted by
+         * another instance, whose write evicts nothing here, is found on the next lookup.
+         * </p>
+         *
+         * @param email Email address to look up
+         * @return The user, or an empty Optional if no user has this email
+         */
+        @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, unless = "#result == null")
+        public Optional<User> getUserByEmail(String email) {
+            if (compactStore != null) {
+                Optional<User> stored = compactStore.findByEmail(email);
+                if (stored.isPresent()) {
+                    return stored;
+                }
+            }
+            return userByEmailFlights.execute(email, () -> userRepository.findByEmail(email));
+        }
+
+        /**
+         * Saves a new user.
+         * <p>
+         * The email address is first checked with the {@link EmailBloomFilter};
+         * only an address it cannot rule out is looked up in the database. Once
+         * saved, the user carries the ID assigned to it.
+         * </p>
+         *
+         * @param user User to create
+         * @throws IllegalArgumentException if the user is null
+         * @throws DuplicateKeyException if the email address already belongs to a user
+         */
+        @CacheEvict(cacheNames = {CacheConfig.USER_PAGES, CacheConfig.USERS_BY_ID, CacheConfig.USERS_BY_EMAIL},
+            allEntries = true)
         public void saveUser(User user) {
             if (user == null) {
                 throw new IllegalArgumentException("User cannot be null");
             }
-            userRepository.saveUser(user);
+            if (user.getEmail() != null && !emailFilter.findExistingEmails(List.of(user.getEmail())).isEmpty()) {
+                throw new DuplicateKeyException(DUPLICATE_EMAIL_MESSAGE);
+            }
+            try {
+                userRepository.saveUser(user);
+            } finally {
+                forgetReadsInFlight();
+            }
+            emailFilter.add(user.getEmail());
+            searchIndex.addAll(List.of(user));
+            if (compactStore != null) {
+                compactStore.addAll(List.of(user));
+            }
+        }
+
+        /**
+         * Validates and saves several users in one call.
+         * <p>
+         * Each user is checked against the {@link User} constraints and against
+         * email addresses that are already taken, in the database or earlier in
+         * the same request, ignoring case. Valid users are inserted with JDBC
+         * batch inserts; invalid ones are skipped and reported by their position
+         * in the request, including users whose email was taken by another
+         * request while the batch was being saved.
+         * </p>
+         *
+         * @param users Users to create
+         * @return Number of users created and the errors for every rejected user
+         * @throws IllegalArgumentException if the list is null
+         * @throws InvalidRequestException if the list is empty or larger than the configured maximum
+         */
+        @CacheEvict(cacheNames = {CacheConfig.USER_PAGES, CacheConfig.USERS_BY_ID, CacheConfig.USERS_BY_EMAIL},
+            allEntries = true)
+        public BatchResult saveUsers(List<User> users) {
+            if (users == null) {
+                throw new IllegalArgumentException("Users cannot be null");
+            }
+            if (users.isEmpty()) {
+                throw new InvalidRequestException("Users cannot be empty");
+            }
+            if (users.size() > batchMaxSize) {
+                throw new InvalidRequestException("Cannot create more than " + batchMaxSize + " users per request");
+            }
+            List<User> valid = new ArrayList<>(users.size());
+            List<Integer> validIndexes = new ArrayList<>(users.size());
+            List<BatchItemError> errors = new ArrayList<>();
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                if (user == null) {
+                    errors.add(new BatchItemError(i, Map.of("user", "User cannot be null")));
+                    continue;
+                }
+                Errors violations = validator.validateObject(user);
+                if (!violations.hasErrors()) {
+                    valid.add(user);
+                    validIndexes.add(i);
+                } else {
+                    Map<String, String> fieldErrors = new HashMap<>();
+                    violations.getFieldErrors().forEach(error ->
+                        fieldErrors.put(error.getField(), error.getDefaultMessage()));
+                    errors.add(new BatchItemError(i, fieldErrors));
+                }
+            }
+            List<Integer> uniqueIndexes = new ArrayList<>(valid.size());
+            List<User> unique = rejectDuplicateEmails(valid, validIndexes, uniqueIndexes, errors);
+            List<User> saved = unique;
+            if (!unique.isEmpty()) {
+                try {
+                    saved = insertUsers(unique, uniqueIndexes, errors);
+                } finally {
+                    forgetReadsInFlight();
+                }
+                saved.forEach(user -> emailFilter.add(user.getEmail()));
+                searchIndex.addAll(saved);
+                if (compactStore != null) {
+                    compactStore.addAll(saved);
+                }
+            }
+            errors.sort(Comparator.comparingInt(BatchItemError::getIndex));
+            return new BatchResult(saved.size(), errors);
+        }
+
+        /**
+         * Drops users whose email is taken, in the database or earlier in the list, ignoring case
+         * as the {@link EmailBloomFilter} does, and collects the positions of the users kept.
+         */
+        private List<User> rejectDuplicateEmails(List<User> users, List<Integer> indexes, List<Integer> uniqueIndexes,
+                List<BatchItemError> errors) {
+            if (users.isEmpty()) {
+                return users;
+            }
+            Set<String> taken = new HashSet<>();
+            emailFilter.findExistingEmails(users.stream().map(User::getEmail).toList())
+                .forEach(email -> taken.add(email.toLowerCase(Locale.ROOT)));
+            Set<String> seen = new HashSet<>();
+            List<User> unique = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                String email = user.getEmail().toLowerCase(Locale.ROOT);
+                if (taken.contains(email) || !seen.add(email)) {
+                    errors.add(new BatchItemError(indexes.get(i), Map.of("email", DUPLICATE_EMAIL_MESSAGE)));
+                } else {
+                    unique.add(user);
+                    uniqueIndexes.add(indexes.get(i));
+                }
+            }
+            return unique;
+        }
+
+        /**
+         * Inserts the users as one batch and returns those saved.
+         * <p>
+         * An email can be taken by another request after it was checked. The
+         * unique index then rejects the batch, and each user is inserted on its
+         * own so that only the users whose email is taken are reported. Users a
+         * {@link com.example.usermanagement.repository.ShardedUserRepository
+         * sharded repository} saved on another shard before the failure are found
+         * by their ID instead of being inserted twice.
+         * </p>
+         */
+        private List<User> insertUsers(List<User> users, List<Integer> indexes, List<BatchItemError> errors) {
+            try {
+                userRepository.saveUsers(users);
+                return users;
+            } catch (DuplicateKeyException ex) {
+                List<User> saved = new ArrayList<>(users.size());
+                for (int i = 0; i < users.size(); i++) {
+                    User user = users.get(i);
+                    try {
+                        if (!isStored(user)) {
+                            userRepository.saveUser(user);
+                        }
+                        saved.add(user);
+                    } catch (DuplicateKeyException duplicate) {
+                        errors.add(new BatchItemError(indexes.get(i), Map.of("email", DUPLICATE_EMAIL_MESSAGE)));
+                    }
+                }
+                return saved;
+            }
+        }
+
+        private boolean isStored(User user) {
+            return user.getId() > 0 && userRepository.findById(user.getId())
+                .filter(stored -> stored.getEmail().equalsIgnoreCase(user.getEmail()))
+                .isPresent();
+        }
+
+        private UserPage loadPage(int afterId, int limit) {
+            if (compactStore != null) {
+                // Writes by other instances may not have reached the store yet; the page must include them.
+                compactStore.refresh();
+            }
+            // Read one extra row to learn whether another page exists without a COUNT query.
+            List<User> users = compactStore != null
+                ? compactStore.getUsersAfter(afterId, limit + 1)
+                : userRepository.getUsersAfter(afterId, limit + 1);
+            if (users.size() <= limit) {
+                return new UserPage(users, null);
+            }
+            List<User> page = users.subList(0, limit);
+            return new UserPage(page, encodeCursor(page.get(limit - 1).getId()));
+        }
+
+        /**
+         * Makes reads that start after a write run their own query instead of joining one begun before it.
+         */
+        private void forgetReadsInFlight() {
+            pageFlights.forgetAll();
+            userByIdFlights.forgetAll();
+            userByEmailFlights.forgetAll();
+            changeFlights.forgetAll();
+        }
+
+        private static String encodeCursor(int id) {
+            byte[] raw = (CURSOR_PREFIX + id).getBytes(StandardCharsets.US_ASCII);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        }
+
+        private static int decodeCursor(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return 0;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+                if (raw.startsWith(CURSOR_PREFIX)) {
+                    int id = Integer.parseInt(raw.substring(CURSOR_PREFIX.length()));
+                    if (id >= 0) {
+                        return id;
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                // Falls through to the invalid cursor error below.
+            }
+            throw new InvalidRequestException("Invalid cursor");
         }
     }
@@ -0,0 +1,20 @@
+package com.example.usermanagement.validation;
+
+/**
+ * Thrown when a client supplies a request parameter the service cannot accept,
+ * such as an out-of-range limit or a malformed cursor.
+ * <p>
+ * The message is meant for the client and is returned with a 400 response.
+ * </p>
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    /**
+     * Creates the exception with a message describing the invalid input.
+     *
+     * @param message Description of the invalid input, returned to the client
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.usermanagement.validation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.regex.Pattern;
+
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import com.example.usermanagement.entity.User;
+
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Hand-written validator applying the {@link User} constraints without Bean Validation.
+ * <p>
+ * Bean Validation walks the constraint metadata of every property, builds a
+ * {@code ConstraintViolation} per failure and interpolates its message on each
+ * call. This validator checks the same rules directly: the limits and messages
+ * are read from the {@link User} annotations once, when the class is loaded.
+ * </p>
+ * <p>
+ * Email addresses of the common shape, dot-separated ASCII words before the
+ * {@code @} and ASCII host labels after it, are accepted by one precompiled
+ * pattern; every address it accepts is also accepted by {@code @Email}.
+ * Anything else, quoted local parts, IP literals, international or very long
+ * domains and invalid input alike, is rare and checked by Bean Validation
+ * itself, so the verdict always matches the annotation.
+ * </p>
+ * <p>
+ * At most one error is reported per field, for the first constraint that
+ * fails in declaration order, so a blank name is reported as empty rather
+ * than too short.
+ * </p>
+ */
+@Component
+public class UserValidator implements Validator {
+
+    private static final Min ID_MIN = constraint("id", Min.class);
+
+    private static final NotBlank NAME_NOT_BLANK = constraint("name", NotBlank.class);
+
+    private static final Size NAME_SIZE = constraint("name", Size.class);
+
+    private static final NotBlank EMAIL_NOT_BLANK = constraint("email", NotBlank.class);
+
+    private static final Email EMAIL_FORMAT = constraint("email", Email.class);
+
+    /**
+     * Shape of a common address: dot-separated ASCII words before the {@code @}, dot-separated
+     * host labels of letters and digits joined by inner hyphens after it. Possessive
+     * quantifiers keep the matcher from backtracking; lengths are checked outside the pattern.
+     */
+    private static final Pattern COMMON_EMAIL = Pattern.compile(
+        "[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]++(?:\\.[A-Za-z0-9!#$%&'*+/=?^_`{|}~-]++)*+"
+            + "@[A-Za-z0-9]++(?:-++[A-Za-z0-9]++)*+(?:\\.[A-Za-z0-9]++(?:-++[A-Za-z0-9]++)*+)*+");
+
+    /**
+     * Longest domain taken by the pattern: no label of a domain this short can exceed the 63 characters allowed.
+     */
+    private static final int COMMON_DOMAIN_MAX_LENGTH = 63;
+
+    /**
+     * Longest local part allowed by {@code @Email}.
+     */
+    private static final int LOCAL_PART_MAX_LENGTH = 64;
+
+    /**
+     * Whether the {@code @Email} annotation on {@link User} uses the default rule, which the pattern is a subset of.
+     */
+    private static final boolean DEFAULT_EMAIL_RULE =
+        ".*".equals(EMAIL_FORMAT.regexp()) && EMAIL_FORMAT.flags().length == 0;
+
+    /**
+     * Supports {@link User} only.
+     *
+     * @param clazz Class of the object to validate
+     * @return Whether the class is {@link User}
+     */
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return User.class.equals(clazz);
+    }
+
+    /**
+     * Validates a {@link User}, rejecting each invalid field with the message of its annotation.
+     *
+     * @param target The user to validate
+     * @param errors Errors to reject invalid fields on
+     */
+    @Override
+    public void validate(Object target, Errors errors) {
+        User user = (User) target;
+        if (user.getId() < ID_MIN.value()) {
+            errors.rejectValue("id", "Min", ID_MIN.message());
+        }
+        String name = user.getName();
+        if (isBlank(name)) {
+            errors.rejectValue("name", "NotBlank", NAME_NOT_BLANK.message());
+        } else if (name.length() < NAME_SIZE.min() || name.length() > NAME_SIZE.max()) {
+            errors.rejectValue("name", "Size", NAME_SIZE.message());
+        }
+        String email = user.getEmail();
+        if (isBlank(email)) {
+            errors.rejectValue("email", "NotBlank", EMAIL_NOT_BLANK.message());
+        } else if (!isValidEmail(email)) {
+            errors.rejectValue("email", "Email", EMAIL_FORMAT.message());
+        }
+    }
+
+    /**
+     * Checks an email address with the same rule as {@code @Email}.
+     *
+     * @param email Email address, not empty
+     * @return Whether the address is well-formed
+     */
+    static boolean isValidEmail(String email) {
+        if (DEFAULT_EMAIL_RULE && isCommonEmail(email)) {
+            return true;
+        }
+        return EmailBeanValidation.VALIDATOR.validateValue(User.class, "email", email).stream()
+            .noneMatch(violation -> violation.getConstraintDescriptor().getAnnotation() instanceof Email);
+    }
+
+    /**
+     * Tells whether an email address has the common shape accepted without Bean Validation.
+     *
+     * @param email Email address
+     * @return Whether the precompiled pattern accepts the address
+     */
+    static boolean isCommonEmail(String email) {
+        int at = email.indexOf('@');
+        return at > 0 && at <= LOCAL_PART_MAX_LENGTH && email.length() - at - 1 <= COMMON_DOMAIN_MAX_LENGTH
+            && COMMON_EMAIL.matcher(email).matches();
+    }
+
+    private static boolean isBlank(String value) {
+        // Same rule as Hibernate Validator's @NotBlank, which trims rather than strips.
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static <A extends Annotation> A constraint(String field, Class<A> type) {
+        try {
+            Field declared = User.class.getDeclaredField(field);
+            A annotation = declared.getAnnotation(type);
+            if (annotation == null) {
+                throw new IllegalStateException("User." + field + " has no @" + type.getSimpleName());
+            }
+            return annotation;
+        } catch (NoSuchFieldException ex) {
+            throw new IllegalStateException("User has no field " + field, ex);
+        }
+    }
+
+    /**
+     * Bean Validation for the addresses the pattern does not accept, created on first use.
+     */
+    private static final class EmailBeanValidation {
+
+        private static final jakarta.validation.Validator VALIDATOR =
+            Validation.buildDefaultValidatorFactory().getValidator();
+    }
+}
@@ -0,0 +1,9 @@
+-- Runs after schema.sql and brings tables created by earlier versions up to date.
+-- Every statement is a no-op on a schema that is already current.
+
+-- The unique email index is the final check against duplicate addresses.
+ALTER TABLE users ADD CONSTRAINT IF NOT EXISTS uk_users_email UNIQUE (email);
+
+-- IDs come from UserIdAllocator; an insert without one must fail rather than
+-- take a generated ID the allocator may hand out again.
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
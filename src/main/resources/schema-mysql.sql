@@ -0,0 +1,28 @@
+-- Runs after schema.sql and brings tables created by earlier versions up to date.
+-- Every statement is a no-op on a schema that is already current. MySQL has no
+-- IF NOT EXISTS for indexes, so each change is built from information_schema
+-- and replaced by DO 0 when it is already applied.
+
+-- The unique email index is the final check against duplicate addresses. Adding
+-- it fails if the table already holds duplicate emails; remove those first.
+SET @add_uk_users_email = IF(EXISTS (
+        SELECT 1 FROM information_schema.statistics
+        WHERE table_schema = DATABASE() AND table_name = 'users'
+            AND column_name = 'email' AND non_unique = 0),
+    'DO 0',
+    'ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email)');
+PREPARE add_uk_users_email FROM @add_uk_users_email;
+EXECUTE add_uk_users_email;
+DEALLOCATE PREPARE add_uk_users_email;
+
+-- IDs come from UserIdAllocator; an insert without one must fail rather than
+-- take a generated ID the allocator may hand out again.
+SET @drop_users_id_auto_increment = IF(EXISTS (
+        SELECT 1 FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = 'users'
+            AND column_name = 'id' AND extra LIKE '%auto_increment%'),
+    'ALTER TABLE users MODIFY id INT NOT NULL',
+    'DO 0');
+PREPARE drop_users_id_auto_increment FROM @drop_users_id_auto_increment;
+EXECUTE drop_users_id_auto_increment;
+DEALLOCATE PREPARE drop_users_id_auto_increment;
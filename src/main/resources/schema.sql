@@ -0,0 +1,17 @@
+-- User IDs are handed out by UserIdAllocator from user_id_sequence; every insert must supply one.
+CREATE TABLE IF NOT EXISTS users (
+    id INT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS user_changes (
+    seq BIGINT PRIMARY KEY,
+    user_id INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_id_sequence (
+    name VARCHAR(64) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
@@ -0,0 +1,157 @@
+package com.example.usermanagement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.CookieManager;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Smoke test for the native executable built with {@code mvn -Pnative verify}.
+ * <p>
+ * Starts the command given in the {@code native.command} system property
+ * against the embedded H2 database and exercises {@code GET} and
+ * {@code POST /users} over HTTP. Any launch command works, so the test can
+ * also be pointed at the JVM build, e.g.
+ * {@code -Dnative.command="java -jar target/user-management-api-0.0.1-SNAPSHOT.jar"}.
+ * </p>
+ * <p>
+ * The application runs with Spring Security's defaults, so {@code POST}
+ * requests carry the CSRF token of the test's session, read from the
+ * default login page.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "native.command", matches = ".+")
+public class NativeImageSmokeIT {
+
+    private static final String CREDENTIALS = "smoke";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(60);
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\" type=\"hidden\" value=\"([^\"]+)\"");
+
+    private static final Logger log = LoggerFactory.getLogger(NativeImageSmokeIT.class);
+
+    private static final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(1))
+        .cookieHandler(new CookieManager())
+        .build();
+
+    private static Process process;
+
+    private static URI usersUri;
+
+    /**
+     * Starts the application and waits until it answers {@code GET /users}.
+     */
+    @BeforeAll
+    public static void startApplication() throws Exception {
+        int port = freePort();
+        usersUri = URI.create("http://localhost:" + port + "/users");
+        List<String> command = new ArrayList<>(Arrays.asList(System.getProperty("native.command").trim().split("\\s+")));
+        command.addAll(List.of("--server.port=" + port,
+            "--spring.security.user.name=" + CREDENTIALS, "--spring.security.user.password=" + CREDENTIALS));
+
+        long start = System.nanoTime();
+        process = new ProcessBuilder(command).inheritIO().start();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            assertTrue(process.isAlive(), "Application exited during startup");
+            try {
+                if (get().statusCode() == 200) {
+                    log.info("First GET /users answered after {} ms", (System.nanoTime() - start) / 1_000_000);
+                    return;
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet.
+            }
+            Thread.sleep(5);
+        }
+        fail("No successful GET /users within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Stops the application.
+     */
+    @AfterAll
+    public static void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    /**
+     * Tests that a user created with {@code POST /users} is listed by {@code GET /users}.
+     */
+    @Test
+    public void testCreateAndListUsers() throws Exception {
+        HttpResponse<String> created = client.send(post(usersUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Native User\",\"email\":\"native@example.com\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(2, created.statusCode() / 100, "Creating a user should succeed: " + created.body());
+
+        HttpResponse<String> listed = get();
+        assertEquals(200, listed.statusCode());
+        assertTrue(listed.body().contains("native@example.com"), "The new user should be listed: " + listed.body());
+    }
+
+    /**
+     * Tests that an invalid user is rejected with 400.
+     */
+    @Test
+    public void testCreateInvalidUser() throws Exception {
+        HttpResponse<String> response = client.send(post(usersUri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"\",\"email\":\"not-an-email\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    private static HttpResponse<String> get() throws IOException, InterruptedException {
+        return client.send(request(usersUri).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Starts a request carrying the session's CSRF token, which Spring Security requires on {@code POST}.
+     */
+    private static HttpRequest.Builder post(URI uri) throws IOException, InterruptedException {
+        HttpResponse<String> loginPage = client.send(request(uri.resolve("/login")).GET().build(),
+            HttpResponse.BodyHandlers.ofString());
+        Matcher token = CSRF_TOKEN.matcher(loginPage.body());
+        assertTrue(token.find(), "The login page should carry a CSRF token: " + loginPage.body());
+        return request(uri).header("X-CSRF-TOKEN", token.group(1));
+    }
+
+    private static HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+            .header("Authorization", "Basic " + Base64.getEncoder()
+                .encodeToString((CREDENTIALS + ":" + CREDENTIALS).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.usermanagement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.service.UserService;
+
+/**
+ * Load test comparing how many {@code GET /users} requests are served concurrently
+ * with platform threads and with virtual threads.
+ * <p>
+ * Tomcat is limited to {@value #WORKER_THREADS} worker threads and every request
+ * blocks for {@value #BLOCKING_MILLIS} ms inside the service, standing in for a
+ * slow database call. With platform threads the worker pool caps concurrency;
+ * with virtual threads every request can block at the same time.
+ * </p>
+ * <p>
+ * Tagged {@code load} and skipped by the default test run; run it with {@code mvn -Pload test}.
+ * </p>
+ */
+@Tag("load")
+public class RequestCapacityLoadTest {
+
+    private static final int WORKER_THREADS = 10;
+
+    private static final int REQUESTS = 100;
+
+    private static final long BLOCKING_MILLIS = 200;
+
+    private static final String PROPERTIES = "server.tomcat.threads.max=" + WORKER_THREADS;
+
+    private static final String USERNAME = "spring.security.user.name=load";
+
+    private static final String PASSWORD = "spring.security.user.password=load";
+
+    /**
+     * Requests served with the default Tomcat platform-thread pool.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {PROPERTIES, USERNAME, PASSWORD, "spring.threads.virtual.enabled=false"})
+    class PlatformThreads {
+
+        @MockitoBean
+        private UserService userService;
+
+        @LocalServerPort
+        private int port;
+
+        /**
+         * Verifies that concurrency is capped by the size of the worker pool.
+         */
+        @Test
+        void testConcurrentRequests_CappedByWorkerPool() throws Exception {
+            int peak = runLoad(userService, port);
+
+            assertTrue(peak <= WORKER_THREADS, "At most " + WORKER_THREADS + " requests should block at once, saw " + peak);
+        }
+    }
+
+    /**
+     * Requests served on virtual threads.
+     */
+    @Nested
+    @NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {PROPERTIES, USERNAME, PASSWORD, "spring.threads.virtual.enabled=true"})
+    class VirtualThreads {
+
+        @MockitoBean
+        private UserService userService;
+
+        @LocalServerPort
+        private int port;
+
+        /**
+         * Verifies that blocked requests no longer exhaust the worker pool.
+         */
+        @Test
+        void testConcurrentRequests_NotCappedByWorkerPool() throws Exception {
+            int peak = runLoad(userService, port);
+
+            assertTrue(peak > WORKER_THREADS, "More than " + WORKER_THREADS + " requests should block at once, saw " + peak);
+        }
+    }
+
+    /**
+     * Sends {@value #REQUESTS} concurrent requests and returns the largest number
+     * that were blocked in the service at the same time.
+     */
+    private static int runLoad(UserService userService, int port) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(userService.getUsersPage(any(), anyInt(), any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new UserPage(List.of(), null);
+        });
+
+        String credentials = Base64.getEncoder().encodeToString("load:load".getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users"))
+            .header("Authorization", "Basic " + credentials)
+            .build();
+        HttpClient client = HttpClient.newHttpClient();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+        return peak.get();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.usermanagement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.example.usermanagement.controller.UserController;
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+
+/**
+ * Test class for {@link UserManagementRuntimeHints}.
+ * Verifies the reachability metadata contributed to a native image.
+ */
+public class UserManagementRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    /**
+     * Registers the hints under test.
+     */
+    public UserManagementRuntimeHintsTest() {
+        new UserManagementRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    /**
+     * Tests that the JSON types can be bound by Jackson.
+     */
+    @Test
+    public void testBindingHints() {
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(User.class, "getEmail").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(User.class, "setEmail").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserPage.class).test(hints));
+    }
+
+    /**
+     * Tests that the controller's handler methods and the H2 driver are reachable.
+     */
+    @Test
+    public void testReflectionHints() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserController.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of("org.h2.Driver"))
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+
+    /**
+     * Tests that the schema scripts are included as resources.
+     */
+    @Test
+    public void testResourceHints() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("schema.sql").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("schema-h2.sql").test(hints));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.usermanagement.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Test class for the HikariCP settings of the {@code mysql} profile.
+ * Binds application-mysql.properties the way Spring Boot binds {@code spring.datasource.hikari}.
+ */
+public class MysqlProfileTest {
+
+    private HikariConfig config;
+
+    /**
+     * Binds the profile's pool settings to a fresh HikariConfig.
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new ClassPathResource("application-mysql.properties").getInputStream()) {
+            properties.load(in);
+        }
+        config = new HikariConfig();
+        new Binder(new MapConfigurationPropertySource(properties))
+            .bind("spring.datasource.hikari", Bindable.ofInstance(config));
+        config.setJdbcUrl("jdbc:mysql://localhost:3306/user_management");
+    }
+
+    /**
+     * Tests that the pool is fixed-size, leak-detecting and accepted by HikariCP as is.
+     */
+    @Test
+    public void testPoolSettings() {
+        config.validate();
+
+        assertEquals("users-pool", config.getPoolName());
+        assertEquals(config.getMaximumPoolSize(), config.getMinimumIdle(), "Pool should be fixed-size");
+        assertTrue(config.getLeakDetectionThreshold() > 0, "Leak detection should be enabled");
+        assertTrue(config.getLeakDetectionThreshold() < config.getMaxLifetime(), "Leak detection should fire before a connection is retired");
+    }
+
+    /**
+     * Tests that statement caching and batch rewriting are passed to the driver.
+     */
+    @Test
+    public void testDriverProperties() {
+        Properties driver = config.getDataSourceProperties();
+
+        assertEquals("true", driver.getProperty("cachePrepStmts"));
+        assertEquals("true", driver.getProperty("useServerPrepStmts"));
+        assertEquals("true", driver.getProperty("rewriteBatchedStatements"));
+        assertEquals("true", driver.getProperty("useCursorFetch"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.usermanagement.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.usermanagement.service.UserSearchIndex;
+
+/**
+ * Test class for the {@code startup} profile.
+ * Verifies that beans are lazy except those serving {@code /users}.
+ */
+@SpringBootTest
+@ActiveProfiles("startup")
+public class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    /**
+     * Tests that beans off the request path are lazy and beans on it are not.
+     */
+    @Test
+    public void testSelectiveLazyInitialization() {
+        assertTrue(beanFactory.getBeanDefinition("userSearchIndex").isLazyInit(), "The search index should be lazy");
+        assertFalse(beanFactory.getBeanDefinition("userController").isLazyInit(), "The controller should be eager");
+        assertFalse(beanFactory.getBeanDefinition("userService").isLazyInit(), "The service should be eager");
+        assertFalse(beanFactory.getBeanDefinition("userRepository").isLazyInit(), "The repository should be eager");
+    }
+
+    /**
+     * Tests that the search index is not created on startup and is left to be built by the first search.
+     */
+    @Test
+    public void testSearchIndexNotBuiltOnStartup() {
+        assertFalse(beanFactory.containsSingleton("userSearchIndex"), "The search index should not be created yet");
+        assertEquals(0, beanFactory.getBean(UserSearchIndex.class).size());
+    }
+}
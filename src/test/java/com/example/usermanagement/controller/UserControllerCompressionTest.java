@@ -0,0 +1,124 @@
+package com.example.usermanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Integration test for response compression of the streamed users export and of the users pages.
+ * Runs the application on a random port against the embedded H2 database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.security.user.name=export",
+    "spring.security.user.password=export"
+})
+public class UserControllerCompressionTest {
+
+    private static final int ROW_COUNT = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    /**
+     * Fills the users table with generated rows.
+     */
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+            + "SELECT X, 'User ' || X, 'user' || X || '@example.com' FROM SYSTEM_RANGE(1, " + ROW_COUNT + ")");
+    }
+
+    /**
+     * Empties the users table.
+     */
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    /**
+     * Tests that the JSON array export is gzip-compressed when the client accepts it.
+     */
+    @Test
+    public void testExportUsers_GzipWhenAccepted() throws Exception {
+        HttpResponse<byte[]> plain = export("identity");
+        HttpResponse<byte[]> gzipped = export("gzip");
+
+        assertEquals(200, gzipped.statusCode());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty(), "Identity response should not be encoded");
+        assertTrue(gzipped.body().length * 4 < plain.body().length,
+            "Gzip (" + gzipped.body().length + " bytes) should be far smaller than JSON (" + plain.body().length + " bytes)");
+
+        byte[] json;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            json = in.readAllBytes();
+        }
+        List<User> users = new ObjectMapper().readValue(json, new TypeReference<List<User>>() { });
+        assertEquals(ROW_COUNT, users.size(), "Every user should be exported");
+        assertArrayEquals(plain.body(), json, "Decompressed body should match the identity body");
+    }
+
+    /**
+     * Tests that a page of users, which carries an ETag, is gzip-compressed when the client accepts it.
+     * Verifies that the ETag is weak, as the container only compresses such responses, and still
+     * answers a revalidation with 304.
+     */
+    @Test
+    public void testGetUsers_GzipWhenAccepted() throws Exception {
+        HttpResponse<byte[]> gzipped = client.send(request("/users?limit=" + ROW_COUNT, "gzip").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, gzipped.statusCode());
+        assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElse(null));
+        String etag = gzipped.headers().firstValue("ETag").orElseThrow();
+        assertTrue(etag.startsWith("W/"), "The ETag should be weak, got " + etag);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            UserPage page = new ObjectMapper().readValue(in.readAllBytes(), UserPage.class);
+            assertEquals(ROW_COUNT, page.getUsers().size(), "The whole page should be returned");
+        }
+
+        HttpResponse<byte[]> revalidated = client.send(request("/users?limit=" + ROW_COUNT, "gzip")
+            .header("If-None-Match", etag).build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(304, revalidated.statusCode());
+    }
+
+    private HttpResponse<byte[]> export(String encoding) throws IOException, InterruptedException {
+        return client.send(request("/users/export", encoding).header("Accept", "application/json").build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpRequest.Builder request(String path, String encoding) {
+        String credentials = Base64.getEncoder().encodeToString("export:export".getBytes(StandardCharsets.UTF_8));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Basic " + credentials)
+            .header("Accept-Encoding", encoding);
+    }
+}
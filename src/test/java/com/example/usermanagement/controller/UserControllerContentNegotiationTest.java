@@ -0,0 +1,124 @@
+package com.example.usermanagement.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Test class for content negotiation of the users listing.
+ * Runs UserController through Spring MVC's message converters with a mocked service.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserControllerContentNegotiationTest {
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private UserController userController;
+
+    private MockMvc mockMvc;
+
+    private UserPage page;
+
+    /**
+     * Builds a standalone MockMvc and a page of 100 users.
+     */
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            users.add(new User(i, "User " + i, "user" + i + "@example.com"));
+        }
+        page = new UserPage(users, "next");
+        when(userService.getPageVersion(null, UserService.DEFAULT_PAGE_SIZE)).thenReturn("v1");
+        when(userService.getUsersPage(null, UserService.DEFAULT_PAGE_SIZE, "v1")).thenReturn(page);
+    }
+
+    /**
+     * Tests that JSON is returned when no binary encoding is requested.
+     */
+    @Test
+    public void testGetUsers_DefaultsToJson() throws Exception {
+        mockMvc.perform(get("/users"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string("ETag", "W/\"v1\""));
+    }
+
+    /**
+     * Tests that CBOR is returned when requested and is smaller than the JSON encoding.
+     */
+    @Test
+    public void testGetUsers_Cbor() throws Exception {
+        byte[] json = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_JSON))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] cbor = mockMvc.perform(get("/users").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+            .andExpect(header().string("ETag", "W/\"v1-cbor\""))
+            .andExpect(header().string("Vary", "Accept"))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        UserPage decoded = new CBORMapper().readValue(cbor, UserPage.class);
+        assertEquals(100, decoded.getUsers().size());
+        assertEquals("user100@example.com", decoded.getUsers().get(99).getEmail());
+        assertTrue(cbor.length < json.length, "CBOR (" + cbor.length + " bytes) should be smaller than JSON (" + json.length + " bytes)");
+    }
+
+    /**
+     * Tests that Smile is returned when requested.
+     */
+    @Test
+    public void testGetUsers_Smile() throws Exception {
+        byte[] smile = mockMvc.perform(get("/users").accept(UserController.APPLICATION_SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(UserController.APPLICATION_SMILE))
+            .andExpect(header().string("ETag", "W/\"v1-smile\""))
+            .andReturn().getResponse().getContentAsByteArray();
+
+        UserPage decoded = new SmileMapper().readValue(smile, UserPage.class);
+        assertEquals("next", decoded.getNextCursor());
+        assertEquals(100, decoded.getUsers().size());
+    }
+
+    /**
+     * Tests that a JSON validator does not match a CBOR request.
+     */
+    @Test
+    public void testGetUsers_EtagIsPerEncoding() throws Exception {
+        mockMvc.perform(get("/users").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "W/\"v1\""))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/users").accept(MediaType.APPLICATION_CBOR).header("If-None-Match", "W/\"v1-cbor\""))
+            .andExpect(status().isNotModified());
+    }
+}
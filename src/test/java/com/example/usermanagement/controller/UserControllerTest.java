@@ -4,24 +4,45 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.IngestionStatus;
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.dto.UserPage;
 import com.example.usermanagement.entity.User;
+import com.example.usermanagement.service.UserIngestionQueue;
 import com.example.usermanagement.service.UserService;
+import com.example.usermanagement.validation.InvalidRequestException;
+import com.example.usermanagement.validation.UserValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 /**
  * Test class for UserController.
@@ -29,7 +50,7 @@ import com.example.usermanagement.service.UserService;
  *
  * <p>Test Scenarios:</p>
  * <ul>
- *   <li>Verify that getAllUsers returns the correct list of users.</li>
+ *   <li>Verify that getUsers returns the page produced by the service.</li>
  *   <li>Ensure createUser successfully creates a user and returns the correct response.</li>
  *   <li>Validate that handleValidationExceptions correctly handles validation errors.</li>
  * </ul>
@@ -40,6 +61,12 @@ public class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private UserValidator userValidator = new UserValidator();
+
     @InjectMocks
     private UserController userController;
 
@@ -62,25 +89,209 @@ public class UserControllerTest {
     }
 
     /**
-     * Tests the getAllUsers method.
-     * Verifies that the method returns a list of users.
+     * Tests the getUsers method.
+     * Verifies that the method returns a page of users.
      *
      * <p>Test Steps:</p>
      * <ol>
-     *   <li>Mock UserService to return a list of users.</li>
-     *   <li>Call getAllUsers from UserController.</li>
-     *   <li>Assert that the returned list matches expectations.</li>
+     *   <li>Mock UserService to return a page of users.</li>
+     *   <li>Call getUsers from UserController with explicit paging parameters.</li>
+     *   <li>Assert that the returned page matches expectations.</li>
      * </ol>
      */
     @Test
-    public void testGetAllUsers() {
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(user1, user2));
+    public void testGetUsers() {
+        UserPage expected = new UserPage(Arrays.asList(user1, user2), "next");
+        when(userService.getPageVersion("cursor", 2)).thenReturn("v1");
+        when(userService.getUsersPage("cursor", 2, "v1")).thenReturn(expected);
 
-        List<User> users = userController.getAllUsers();
+        ResponseEntity<UserPage> response = userController.getUsers(2, "cursor", getRequest(null));
+        UserPage page = response.getBody();
+        List<User> users = page.getUsers();
 
         assertEquals(2, users.size(), "The size of the user list should be 2");
         assertEquals(user1, users.get(0), "The first user should be user1");
         assertEquals(user2, users.get(1), "The second user should be user2");
+        assertEquals("next", page.getNextCursor(), "The next cursor should be passed through");
+        assertEquals("W/\"v1\"", response.getHeaders().getETag(), "The ETag should be the page version");
+    }
+
+    /**
+     * Tests the getUsers method without paging parameters.
+     * Verifies that the default page size is applied and no cursor is sent.
+     */
+    @Test
+    public void testGetUsers_DefaultLimit() {
+        when(userService.getPageVersion(null, UserService.DEFAULT_PAGE_SIZE)).thenReturn("v1");
+        when(userService.getUsersPage(null, UserService.DEFAULT_PAGE_SIZE, "v1"))
+            .thenReturn(new UserPage(Arrays.asList(user1), null));
+
+        UserPage page = userController.getUsers(null, null, getRequest(null)).getBody();
+
+        assertEquals(1, page.getUsers().size(), "The page should contain one user");
+        assertNull(page.getNextCursor(), "The last page should not have a next cursor");
+    }
+
+    /**
+     * Tests the getUsers method with a matching If-None-Match header.
+     * Verifies that 304 is answered without reading the page when it is unchanged.
+     */
+    @Test
+    public void testGetUsers_NotModified() {
+        when(userService.getPageVersion(null, UserService.DEFAULT_PAGE_SIZE)).thenReturn("v1");
+        ServletWebRequest request = getRequest("W/\"v1\"");
+
+        ResponseEntity<UserPage> response = userController.getUsers(null, null, request);
+
+        assertNull(response, "No body should be produced for an unchanged page");
+        verify(userService, never()).getUsersPage(any(), anyInt(), any());
+        assertEquals(304, request.getResponse().getStatus(), "Response status should be NOT_MODIFIED");
+    }
+
+    /**
+     * Tests the getUsers method with a stale If-None-Match header.
+     * Verifies that the page is read and returned with the new ETag.
+     */
+    @Test
+    public void testGetUsers_Modified() {
+        UserPage changed = new UserPage(List.of(user1), null);
+        when(userService.getPageVersion(null, UserService.DEFAULT_PAGE_SIZE)).thenReturn("v2");
+        when(userService.getUsersPage(null, UserService.DEFAULT_PAGE_SIZE, "v2")).thenReturn(changed);
+
+        ResponseEntity<UserPage> response = userController.getUsers(null, null, getRequest("W/\"v1\""));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
+        assertEquals("W/\"v2\"", response.getHeaders().getETag(), "The ETag should be the new page version");
+    }
+
+    /**
+     * Tests the getUser method for an existing user.
+     * Verifies that the user is returned with status OK.
+     */
+    @Test
+    public void testGetUser_Found() {
+        when(userService.getUserById(1)).thenReturn(Optional.of(user1));
+
+        ResponseEntity<User> response = userController.getUser(1);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
+        assertEquals(user1, response.getBody(), "The returned user should be user1");
+    }
+
+    /**
+     * Tests the getUser method for an unknown ID.
+     * Verifies that status NOT_FOUND is returned.
+     */
+    @Test
+    public void testGetUser_NotFound() {
+        when(userService.getUserById(99)).thenReturn(Optional.empty());
+
+        ResponseEntity<User> response = userController.getUser(99);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(), "Response status should be NOT_FOUND");
+    }
+
+    /**
+     * Tests the getUserByEmail method.
+     * Verifies that the user with the given email is returned.
+     */
+    @Test
+    public void testGetUserByEmail() {
+        when(userService.getUserByEmail("jane.smith@example.com")).thenReturn(Optional.of(user2));
+
+        ResponseEntity<User> response = userController.getUserByEmail("jane.smith@example.com");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
+        assertEquals(user2, response.getBody(), "The returned user should be user2");
+    }
+
+    /**
+     * Tests the searchUsers method.
+     * Verifies that the default limit is used when none is given.
+     */
+    @Test
+    public void testSearchUsers_DefaultLimit() {
+        when(userService.searchUsers("jo", UserService.DEFAULT_SEARCH_LIMIT)).thenReturn(List.of(user1));
+
+        List<User> result = userController.searchUsers("jo", null);
+
+        assertEquals(List.of(user1), result, "The matching users should be returned");
+    }
+
+    /**
+     * Tests the getChanges method.
+     * Verifies that the default limit is applied and the service's page is returned.
+     */
+    @Test
+    public void testGetChanges_DefaultLimit() {
+        UserChangePage changes = new UserChangePage(List.of(user2), "7", false);
+        when(userService.getChanges("5", UserService.DEFAULT_CHANGES_LIMIT)).thenReturn(changes);
+
+        assertSame(changes, userController.getChanges("5", null));
+    }
+
+    /**
+     * Tests the exportUsers method.
+     * Verifies that users are written as newline-delimited JSON.
+     *
+     * <p>Test Steps:</p>
+     * <ol>
+     *   <li>Mock UserService to stream two users to the callback.</li>
+     *   <li>Write the streaming body returned by exportUsers to a buffer.</li>
+     *   <li>Assert that each user is on its own line.</li>
+     * </ol>
+     */
+    @Test
+    public void testExportUsers() throws Exception {
+        doAnswer(invocation -> {
+            java.util.function.Consumer<User> action = invocation.getArgument(0);
+            action.accept(user1);
+            action.accept(user2);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertEquals(
+            "{\"id\":1,\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"}\n"
+                + "{\"id\":2,\"name\":\"Jane Smith\",\"email\":\"jane.smith@example.com\"}\n",
+            out.toString(StandardCharsets.UTF_8), "Each user should be written on its own line");
+    }
+
+    /**
+     * Tests the exportUsersAsJsonArray method.
+     * Verifies that users are written as one JSON array.
+     *
+     * <p>Test Steps:</p>
+     * <ol>
+     *   <li>Mock UserService to stream two users to the callback.</li>
+     *   <li>Write the streaming body returned by exportUsersAsJsonArray to a buffer.</li>
+     *   <li>Assert that the buffer holds both users in a JSON array.</li>
+     * </ol>
+     */
+    @Test
+    public void testExportUsersAsJsonArray() throws Exception {
+        doAnswer(invocation -> {
+            java.util.function.Consumer<User> action = invocation.getArgument(0);
+            action.accept(user1);
+            action.accept(user2);
+            return null;
+        }).when(userService).exportUsers(any());
+
+        ResponseEntity<StreamingResponseBody> response = userController.exportUsersAsJsonArray();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(
+            "[{\"id\":1,\"name\":\"John Doe\",\"email\":\"john.doe@example.com\"},"
+                + "{\"id\":2,\"name\":\"Jane Smith\",\"email\":\"jane.smith@example.com\"}]",
+            out.toString(StandardCharsets.UTF_8), "Users should be written as a JSON array");
     }
 
     /**
@@ -89,24 +300,101 @@ public class UserControllerTest {
      *
      * <p>Test Steps:</p>
      * <ol>
-     *   <li>Mock UserService to allow saving a user.</li>
+     *   <li>Mock UserService to save a user and assign it an ID.</li>
      *   <li>Call createUser from UserController.</li>
-     *   <li>Assert that the response status is OK and message is correct.</li>
+     *   <li>Assert that the response is 201 with the user and its location.</li>
      *   <li>Verify that userService.saveUser was called.</li>
      * </ol>
      */
     @Test
     public void testCreateUser() {
-        doNothing().when(userService).saveUser(any(User.class));
+        doAnswer(invocation -> {
+            invocation.<User>getArgument(0).setId(42);
+            return null;
+        }).when(userService).saveUser(any(User.class));
 
-        ResponseEntity<String> response = userController.createUser(user1);
+        ResponseEntity<?> response = userController.createUser(user1);
 
-        assertEquals(HttpStatus.OK, response.getStatusCode(), "Response status should be OK");
-        assertEquals("User created successfully", response.getBody(), "Response body should indicate success");
+        assertEquals(HttpStatus.CREATED, response.getStatusCode(), "Response status should be Created");
+        assertEquals(URI.create("/users/42"), response.getHeaders().getLocation(), "Location should point to the new user");
+        assertSame(user1, response.getBody(), "Response body should be the created user");
+        assertEquals(42, user1.getId());
 
         verify(userService).saveUser(user1);
     }
 
+    /**
+     * Tests the createUser method in write-behind mode.
+     * Verifies that the user is queued and 202 is returned with its tracking status.
+     */
+    @Test
+    public void testCreateUser_WriteBehindAccepted() {
+        UserIngestionQueue ingestionQueue = mock(UserIngestionQueue.class);
+        ReflectionTestUtils.setField(userController, "ingestionQueue", ingestionQueue);
+        IngestionStatus status = new IngestionStatus("abc", IngestionStatus.State.PENDING, Map.of());
+        when(ingestionQueue.submit(user1)).thenReturn(Optional.of(status));
+
+        ResponseEntity<?> response = userController.createUser(user1);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), "Response status should be ACCEPTED");
+        assertSame(status, response.getBody(), "The pending status should be returned");
+        assertEquals("/users/ingestion/abc", response.getHeaders().getLocation().toString());
+        verify(userService, never()).saveUser(any());
+    }
+
+    /**
+     * Tests the createUser method in write-behind mode when the queue is full.
+     * Verifies that 429 is returned.
+     */
+    @Test
+    public void testCreateUser_WriteBehindQueueFull() {
+        UserIngestionQueue ingestionQueue = mock(UserIngestionQueue.class);
+        ReflectionTestUtils.setField(userController, "ingestionQueue", ingestionQueue);
+        when(ingestionQueue.submit(user1)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = userController.createUser(user1);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode(), "Response status should be TOO_MANY_REQUESTS");
+        verify(userService, never()).saveUser(any());
+    }
+
+    /**
+     * Tests the getIngestionStatus method when write-behind is disabled.
+     * Verifies that status NOT_FOUND is returned.
+     */
+    @Test
+    public void testGetIngestionStatus_Disabled() {
+        ResponseEntity<IngestionStatus> response = userController.getIngestionStatus("abc");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode(), "Response status should be NOT_FOUND");
+    }
+
+    /**
+     * Tests the createUsers method.
+     * Verifies that the bulk request is delegated to the service and its result returned.
+     */
+    @Test
+    public void testCreateUsers() {
+        BatchResult expected = new BatchResult(2, List.of());
+        when(userService.saveUsers(List.of(user1, user2))).thenReturn(expected);
+
+        BatchResult result = userController.createUsers(List.of(user1, user2));
+
+        assertSame(expected, result, "The service result should be returned unchanged");
+    }
+
+    /**
+     * Tests that user request bodies are validated by {@link UserValidator}.
+     */
+    @Test
+    public void testInitUserBinder() {
+        WebDataBinder binder = new WebDataBinder(new User(), "user");
+
+        userController.initUserBinder(binder);
+
+        assertSame(userValidator, binder.getValidator(), "User bodies should use the hand-written validator");
+    }
+
     /**
      * Tests the handleValidationExceptions method.
      * Verifies that validation errors are handled correctly.
@@ -132,4 +420,35 @@ public class UserControllerTest {
         assertEquals(1, errors.size(), "Errors map should contain one error");
         assertEquals("Name is required", errors.get("name"), "Error message should match the expected message");
     }
+
+    /**
+     * Tests the handleInvalidRequest method.
+     * Verifies that invalid paging input is reported with its message.
+     */
+    @Test
+    public void testHandleInvalidRequest() {
+        Map<String, String> error = userController.handleInvalidRequest(new InvalidRequestException("Invalid cursor"));
+
+        assertEquals(1, error.size(), "Error map should contain one entry");
+        assertEquals("Invalid cursor", error.get("error"), "Error message should match the exception message");
+    }
+
+    /**
+     * Tests the handleDuplicateKey method.
+     * Verifies that a unique index violation is reported as a duplicate email.
+     */
+    @Test
+    public void testHandleDuplicateKey() {
+        Map<String, String> error = userController.handleDuplicateKey(new DuplicateKeyException("uk_users_email"));
+
+        assertEquals(UserService.DUPLICATE_EMAIL_MESSAGE, error.get("error"), "Error message should report the duplicate email");
+    }
+
+    private static ServletWebRequest getRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
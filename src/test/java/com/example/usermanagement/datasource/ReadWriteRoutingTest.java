@@ -0,0 +1,219 @@
+package com.example.usermanagement.datasource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.usermanagement.datasource.ReadWriteRoutingDataSource.Route;
+import com.example.usermanagement.datasource.ReadWriteRoutingDataSource.Strategy;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Integration test for read/write routing with three H2 databases standing in
+ * for a primary and two replicas.
+ * <p>
+ * Replication is not simulated: each database is filled directly, so the
+ * database a read was served from can be told apart by the rows it returns.
+ * </p>
+ */
+@SpringBootTest(properties = {
+    "users.datasource.routing.enabled=true",
+    "users.datasource.routing.read-your-writes-window=0s",
+    "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+    "users.datasource.routing.replicas[0].jdbc-url=jdbc:h2:mem:routing-replica-0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+    "users.datasource.routing.replicas[1].jdbc-url=jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'"
+})
+public class ReadWriteRoutingTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private DataSource primaryDataSource;
+
+    private JdbcTemplate primary;
+
+    private final JdbcTemplate[] replicas = new JdbcTemplate[2];
+
+    /**
+     * Puts one marker user in each replica.
+     */
+    @BeforeEach
+    public void setUp() {
+        primary = new JdbcTemplate(routingDataSource.getResolvedDataSources().get("primary"));
+        for (int i = 0; i < replicas.length; i++) {
+            replicas[i] = new JdbcTemplate(routingDataSource.getResolvedDataSources().get("replica-" + i));
+            replicas[i].update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+                1_000_000 + i, "Replica " + i, "replica" + i + "@example.com");
+        }
+    }
+
+    /**
+     * Empties every database and closes the read-your-writes window.
+     */
+    @AfterEach
+    public void tearDown() {
+        primary.update("DELETE FROM users");
+        for (JdbcTemplate replica : replicas) {
+            replica.update("DELETE FROM users");
+        }
+        routingDataSource.setReadYourWritesWindow(Duration.ZERO);
+        ReadWriteRoutingDataSource.setPrimaryUntil(null);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Tests that the routing data source is the one the application uses.
+     */
+    @Test
+    public void testRoutingDataSourceIsPrimaryBean() {
+        assertSame(routingDataSource, primaryDataSource);
+    }
+
+    /**
+     * Tests that writes go to the primary only.
+     */
+    @Test
+    public void testSaveUser_WritesToPrimary() {
+        userRepository.saveUser(new User(0, "John Doe", "john.doe@example.com"));
+
+        assertEquals(1, count(primary), "The primary should hold the new user");
+        assertEquals(1, count(replicas[0]), "Replicas should not be written to");
+        assertEquals(1, count(replicas[1]), "Replicas should not be written to");
+    }
+
+    /**
+     * Tests that reads are spread round-robin over the replicas.
+     */
+    @Test
+    public void testGetAllUsers_ReadsFromReplicasRoundRobin() {
+        String first = onlyName(userRepository.getAllUsers());
+        String second = onlyName(userRepository.getAllUsers());
+        String third = onlyName(userRepository.getAllUsers());
+
+        assertTrue(first.startsWith("Replica"), "Reads should be served by a replica");
+        assertNotEquals(first, second, "Consecutive reads should alternate between replicas");
+        assertEquals(first, third, "Reads should cycle through the replicas");
+    }
+
+    /**
+     * Tests that reads stay on the primary during the read-your-writes window.
+     */
+    @Test
+    public void testReadYourWrites() {
+        routingDataSource.setReadYourWritesWindow(Duration.ofMinutes(1));
+
+        userRepository.saveUser(new User(0, "John Doe", "john.doe@example.com"));
+
+        assertTrue(userRepository.findByEmail("john.doe@example.com").isPresent(), "A read after a write should see it");
+        assertEquals("John Doe", onlyName(userRepository.getAllUsers()));
+    }
+
+    /**
+     * Tests that a write by one client does not send another client's reads to the primary.
+     */
+    @Test
+    public void testReadYourWrites_OtherClientsKeepReadingReplicas() throws Exception {
+        routingDataSource.setReadYourWritesWindow(Duration.ofMinutes(1));
+
+        Thread writer = Thread.ofPlatform().start(() ->
+            userRepository.saveUser(new User(0, "John Doe", "john.doe@example.com")));
+        writer.join();
+
+        assertTrue(onlyName(userRepository.getAllUsers()).startsWith("Replica"), "Another client should read a replica");
+    }
+
+    /**
+     * Tests that the cookie set on a write request sends the same client's next request to the primary,
+     * and that a request without it reads a replica.
+     */
+    @Test
+    public void testReadYourWrites_CookieCarriesWindowToNextRequest() throws Exception {
+        routingDataSource.setReadYourWritesWindow(Duration.ofMinutes(1));
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(routingDataSource);
+
+        MockHttpServletRequest writeRequest = new MockHttpServletRequest("POST", "/users");
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(writeRequest, writeResponse));
+        filter.doFilter(writeRequest, writeResponse, (request, response) ->
+            userRepository.saveUser(new User(0, "John Doe", "john.doe@example.com")));
+        RequestContextHolder.resetRequestAttributes();
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie, "A write should hand its window to the client");
+
+        List<String> names = new ArrayList<>();
+        MockHttpServletRequest sameClient = new MockHttpServletRequest("GET", "/users");
+        sameClient.setCookies(cookie);
+        filter.doFilter(sameClient, new MockHttpServletResponse(), (request, response) ->
+            names.add(onlyName(userRepository.getAllUsers())));
+        filter.doFilter(new MockHttpServletRequest("GET", "/users"), new MockHttpServletResponse(), (request, response) ->
+            names.add(onlyName(userRepository.getAllUsers())));
+
+        assertEquals("John Doe", names.get(0), "The writing client should read the primary");
+        assertTrue(names.get(1).startsWith("Replica"), "Another client should read a replica");
+    }
+
+    /**
+     * Tests that a connection borrowed outside a repository call comes from the primary.
+     */
+    @Test
+    public void testUnroutedCallsUsePrimary() {
+        new JdbcTemplate(routingDataSource).update(
+            "INSERT INTO users (id, name, email) VALUES (1000000, 'Direct', 'direct@example.com')");
+
+        assertEquals(1, count(primary));
+    }
+
+    /**
+     * Tests that the least-loaded strategy avoids a replica whose connections are in use.
+     */
+    @Test
+    public void testLeastLoaded_AvoidsBusyReplica() throws Exception {
+        DataSource busy = routingDataSource.getResolvedDataSources().get("replica-0");
+        DataSource idle = routingDataSource.getResolvedDataSources().get("replica-1");
+        ReadWriteRoutingDataSource leastLoaded = new ReadWriteRoutingDataSource(
+            routingDataSource.getResolvedDataSources().get("primary"), List.of(busy, idle), Strategy.LEAST_LOADED);
+
+        ReadWriteRoutingDataSource.setCurrentRoute(Route.READ);
+        try (Connection held = busy.getConnection()) {
+            for (int i = 0; i < 4; i++) {
+                try (Connection connection = leastLoaded.getConnection()) {
+                    assertTrue(connection.getMetaData().getURL().contains("routing-replica-1"), "Reads should go to the idle replica");
+                }
+            }
+        } finally {
+            ReadWriteRoutingDataSource.setCurrentRoute(null);
+        }
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+    }
+
+    private static String onlyName(List<User> users) {
+        assertEquals(1, users.size(), "Each database should hold a single user");
+        return users.get(0).getName();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.usermanagement.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test class for UserMetricsAspect.
+ * Applies the aspect to a mocked repository and checks the recorded meters.
+ */
+public class UserMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserRepository target;
+
+    private UserRepository userRepository;
+
+    /**
+     * Builds an AOP proxy of a mocked repository with the aspect applied.
+     */
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        UserMetricsAspect aspect = new UserMetricsAspect();
+        ReflectionTestUtils.setField(aspect, "meterRegistry", meterRegistry);
+        target = mock(UserRepository.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        userRepository = factory.getProxy();
+    }
+
+    /**
+     * Tests that a list query is timed and its rows are counted.
+     */
+    @Test
+    public void testRepositoryQuery_TimedAndRowsCounted() {
+        when(target.getUsersAfter(0, 3)).thenReturn(List.of(
+            new User(1, "Alice", "alice@example.com"), new User(2, "Bob", "bob@example.com")));
+
+        userRepository.getUsersAfter(0, 3);
+
+        assertEquals(1, meterRegistry.get("users.repository").tag("method", "getUsersAfter")
+            .tag("exception", "none").timer().count());
+        assertEquals(2.0, meterRegistry.get("users.repository.rows.returned").tag("method", "getUsersAfter")
+            .counter().count());
+        assertEquals(2.0, meterRegistry.get("users.repository.result.size").tag("method", "getUsersAfter")
+            .summary().totalAmount());
+    }
+
+    /**
+     * Tests that inserted rows are counted for single and batch inserts.
+     */
+    @Test
+    public void testRepositorySave_RowsInsertedCounted() {
+        userRepository.saveUser(new User(0, "Alice", "alice@example.com"));
+        userRepository.saveUsers(List.of(new User(0, "Bob", "bob@example.com"), new User(0, "Carol", "carol@example.com")));
+
+        assertEquals(1.0, meterRegistry.get("users.repository.rows.inserted").tag("method", "saveUser").counter().count());
+        assertEquals(2.0, meterRegistry.get("users.repository.rows.inserted").tag("method", "saveUsers").counter().count());
+    }
+
+    /**
+     * Tests that users passed to a streaming callback are counted and still delivered.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRepositoryStream_StreamedRowsCounted() {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(new User(1, "Alice", "alice@example.com"));
+            action.accept(new User(2, "Bob", "bob@example.com"));
+            action.accept(new User(3, "Carol", "carol@example.com"));
+            return null;
+        }).when(target).forEachUser(any(Consumer.class));
+
+        List<User> received = new ArrayList<>();
+        userRepository.forEachUser(received::add);
+
+        assertEquals(3, received.size());
+        assertEquals(3.0, meterRegistry.get("users.repository.rows.returned").tag("method", "forEachUser")
+            .counter().count());
+    }
+
+    /**
+     * Tests that a failing call is timed with the exception as a tag.
+     */
+    @Test
+    public void testRepositoryFailure_TaggedWithException() {
+        when(target.getAllUsers()).thenThrow(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, () -> userRepository.getAllUsers());
+
+        assertEquals(1, meterRegistry.get("users.repository").tag("method", "getAllUsers")
+            .tag("exception", "IllegalStateException").timer().count());
+    }
+}
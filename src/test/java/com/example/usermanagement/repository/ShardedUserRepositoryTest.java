@@ -0,0 +1,200 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.validation.InvalidRequestException;
+
+/**
+ * Integration test for {@link ShardedUserRepository} with three H2 databases as shards.
+ * Verifies placement by email, globally unique IDs and merged scatter-gather reads.
+ */
+@SpringBootTest(properties = {
+    "users.sharding.enabled=true",
+    "users.export.fetch-size=4",
+    "users.sharding.shards[0].jdbc-url=" + ShardedUserRepositoryTest.SHARD_URL + "0;DB_CLOSE_DELAY=-1",
+    "users.sharding.shards[1].jdbc-url=" + ShardedUserRepositoryTest.SHARD_URL + "1;DB_CLOSE_DELAY=-1",
+    "users.sharding.shards[2].jdbc-url=" + ShardedUserRepositoryTest.SHARD_URL + "2;DB_CLOSE_DELAY=-1"
+})
+public class ShardedUserRepositoryTest {
+
+    static final String SHARD_URL = "jdbc:h2:mem:shard-";
+
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Empties every shard.
+     */
+    @AfterEach
+    public void tearDown() {
+        for (int k = 0; k < SHARDS; k++) {
+            shard(k).update("DELETE FROM user_changes");
+            shard(k).update("DELETE FROM users");
+        }
+    }
+
+    /**
+     * Tests that the sharded repository replaces the single-database one.
+     */
+    @Test
+    public void testShardedRepositoryIsInjected() {
+        assertInstanceOf(ShardedUserRepository.class, userRepository);
+        assertEquals(SHARDS, sharded().getShardCount());
+    }
+
+    /**
+     * Tests that each user is stored only on the shard its email hashes to, with an ID issued by that shard.
+     */
+    @Test
+    public void testSaveUser_PlacesUserOnEmailShard() {
+        for (int i = 0; i < 30; i++) {
+            userRepository.saveUser(user(i));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (int k = 0; k < SHARDS; k++) {
+            for (User user : shard(k).query("SELECT id, name, email FROM users", new UserRowMapper())) {
+                assertEquals(k, sharded().shardForEmail(user.getEmail()), "User should be on its email's shard");
+                assertEquals(k, sharded().shardForId(user.getId()), "ID should have been issued by the user's shard");
+                assertTrue(ids.add(user.getId()), "IDs should be unique across shards");
+            }
+        }
+        assertEquals(30, ids.size());
+    }
+
+    /**
+     * Tests that users spread over several shards are listed and paginated in ID order.
+     */
+    @Test
+    public void testScatterGatherReads_MergedInIdOrder() {
+        userRepository.saveUsers(users(0, 20));
+
+        List<User> all = userRepository.getAllUsers();
+        assertEquals(20, all.size());
+        assertSorted(all);
+        Set<Integer> shardsUsed = new HashSet<>();
+        all.forEach(user -> shardsUsed.add(sharded().shardForId(user.getId())));
+        assertEquals(SHARDS, shardsUsed.size(), "Twenty users should land on every shard");
+
+        List<User> paged = new ArrayList<>();
+        int afterId = 0;
+        List<User> page;
+        while (!(page = userRepository.getUsersAfter(afterId, 7)).isEmpty()) {
+            paged.addAll(page);
+            afterId = page.get(page.size() - 1).getId();
+        }
+        assertEquals(ids(all), ids(paged), "Keyset pages should add up to the full list");
+
+        List<User> streamed = new ArrayList<>();
+        userRepository.forEachUser(streamed::add);
+        assertEquals(ids(all), ids(streamed), "Streaming should visit every user in ID order");
+    }
+
+    /**
+     * Tests that lookups by ID and email find users on any shard.
+     */
+    @Test
+    public void testLookups() {
+        userRepository.saveUsers(users(0, 10));
+
+        for (User user : userRepository.getAllUsers()) {
+            assertEquals(user.getEmail(), userRepository.findById(user.getId()).orElseThrow().getEmail());
+            assertEquals(user.getId(), userRepository.findByEmail(user.getEmail()).orElseThrow().getId());
+        }
+        assertTrue(userRepository.findById(1_000_000).isEmpty());
+        assertEquals(Set.of("user1@example.com", "user7@example.com"),
+            userRepository.findExistingEmails(List.of("user1@example.com", "user7@example.com", "nobody@example.com")));
+    }
+
+    /**
+     * Tests that an email is unique across shards, whatever its case.
+     */
+    @Test
+    public void testSaveUser_DuplicateEmailRejected() {
+        userRepository.saveUser(new User(0, "John Doe", "john@example.com"));
+
+        assertEquals(sharded().shardForEmail("john@example.com"), sharded().shardForEmail("JOHN@example.com"));
+        assertThrows(DuplicateKeyException.class, () -> userRepository.saveUser(new User(0, "John Again", "john@example.com")));
+    }
+
+    /**
+     * Tests that the change feed reads every shard in pages that resume from a per-shard cursor.
+     */
+    @Test
+    public void testGetChangesAfter_ReadsEveryShard() {
+        userRepository.saveUsers(users(0, 20));
+
+        Set<String> emails = new HashSet<>();
+        String since = "0";
+        UserChangePage page;
+        do {
+            page = userRepository.getChangesAfter(since, 7);
+            assertTrue(page.getUsers().size() <= 7, "A page should not exceed the limit");
+            page.getUsers().forEach(user -> assertTrue(emails.add(user.getEmail()), "A change should be read once"));
+            since = page.getNextSince();
+        } while (page.isHasMore());
+        assertEquals(20, emails.size(), "Pages should add up to every change");
+        assertEquals(SHARDS, since.split("\\.").length, "The cursor should hold a position per shard");
+
+        userRepository.saveUser(user(20));
+        assertEquals(List.of("user20@example.com"),
+            userRepository.getChangesAfter(since, 7).getUsers().stream().map(User::getEmail).toList());
+    }
+
+    /**
+     * Tests that cursors not made for this number of shards are rejected.
+     */
+    @Test
+    public void testGetChangesAfter_InvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter("5", 10));
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter("1.2", 10));
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter("1.x.3", 10));
+    }
+
+    private ShardedUserRepository sharded() {
+        return (ShardedUserRepository) userRepository;
+    }
+
+    private static JdbcTemplate shard(int k) {
+        return new JdbcTemplate(new DriverManagerDataSource(SHARD_URL + k));
+    }
+
+    private static User user(int i) {
+        return new User(0, "User " + i, "user" + i + "@example.com");
+    }
+
+    private static List<User> users(int from, int to) {
+        List<User> users = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    private static List<Integer> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    private static void assertSorted(List<User> users) {
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId(), "Users should be ordered by ID");
+        }
+    }
+}
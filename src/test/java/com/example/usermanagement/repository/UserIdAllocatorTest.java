@@ -0,0 +1,111 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration test for {@link UserIdAllocator} against an embedded H2 database.
+ * Runs without a test transaction so that reserved blocks are committed as in production.
+ */
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserIdAllocatorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Empties the tables written by each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_id_sequence");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    /**
+     * Tests that the sequence starts after the highest existing ID and reserves one block per database call.
+     */
+    @Test
+    public void testNextId_SeedsFromMaxIdAndReservesBlocks() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (41, 'Existing', 'existing@example.com')");
+        UserIdAllocator allocator = new UserIdAllocator(jdbcTemplate, 10, 1, 0);
+
+        assertEquals(42, allocator.nextId());
+        assertEquals(52L, storedNextValue(), "One block of 10 IDs should have been reserved");
+        for (int expected = 43; expected <= 51; expected++) {
+            assertEquals(expected, allocator.nextId());
+        }
+        assertEquals(52L, storedNextValue(), "IDs within the block should not touch the database");
+
+        assertEquals(52, allocator.nextId());
+        assertEquals(62L, storedNextValue());
+    }
+
+    /**
+     * Tests that allocators sharing the sequence, like two application instances, never hand out the same ID.
+     */
+    @Test
+    public void testNextId_InstancesGetDisjointBlocks() {
+        UserIdAllocator first = new UserIdAllocator(jdbcTemplate, 5, 1, 0);
+        UserIdAllocator second = new UserIdAllocator(jdbcTemplate, 5, 1, 0);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+
+        assertEquals(24, Set.copyOf(ids).size(), "IDs should be unique across instances");
+    }
+
+    /**
+     * Tests that concurrent threads never receive the same ID.
+     */
+    @Test
+    public void testNextId_ConcurrentThreads() throws InterruptedException {
+        UserIdAllocator allocator = new UserIdAllocator(jdbcTemplate, 7, 1, 0);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 250; i++) {
+                    ids.add(allocator.nextId());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(2000, ids.size(), "Every ID should have been handed out once");
+    }
+
+    /**
+     * Tests that an allocator with a stride only issues IDs of its own residue, above the existing ones.
+     */
+    @Test
+    public void testNextId_Stride() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (5, 'Existing', 'existing@example.com')");
+        UserIdAllocator allocator = new UserIdAllocator(jdbcTemplate, 2, 3, 1);
+
+        assertEquals(List.of(8, 11, 14, 17), List.of(allocator.nextId(), allocator.nextId(), allocator.nextId(),
+            allocator.nextId()));
+    }
+
+    private long storedNextValue() {
+        return jdbcTemplate.queryForObject("SELECT next_value FROM user_id_sequence WHERE name = 'users'", Long.class);
+    }
+}
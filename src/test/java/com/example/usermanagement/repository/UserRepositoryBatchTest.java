@@ -0,0 +1,90 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.usermanagement.entity.User;
+
+/**
+ * Integration test for {@link UserRepository#saveUsers} against an embedded H2 database.
+ * Ensures batches spanning several JDBC chunks insert every user.
+ * <p>
+ * Throughput against one insert per user is measured by {@code UserRepositoryBenchmark}
+ * in the {@code jmh} profile.
+ * </p>
+ */
+@JdbcTest
+@Import({UserRepository.class, UserIdAllocator.class})
+public class UserRepositoryBatchTest {
+
+    private static final int CHUNK_SIZE = 50;
+
+    private static final int USER_COUNT = 3 * CHUNK_SIZE + CHUNK_SIZE / 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserIdAllocator idAllocator;
+
+    private UserRepository userRepository;
+
+    /**
+     * Creates a repository that sends {@value #CHUNK_SIZE} inserts per JDBC batch.
+     */
+    @BeforeEach
+    public void setUp() {
+        userRepository = new UserRepository(jdbcTemplate, 1000, CHUNK_SIZE, idAllocator);
+    }
+
+    /**
+     * Tests the saveUsers method with more users than fit in one chunk.
+     * Verifies that every user is inserted and receives the ID it is stored under.
+     */
+    @Test
+    public void testSaveUsers_InsertsEveryChunk() {
+        List<User> users = generateUsers("batch");
+
+        userRepository.saveUsers(users);
+
+        assertEquals(USER_COUNT, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        for (User user : users) {
+            assertTrue(user.getId() > 0, "Every user should be assigned an ID");
+            assertEquals(user.getEmail(), jdbcTemplate.queryForObject(
+                "SELECT email FROM users WHERE id = ?", String.class, user.getId()));
+        }
+    }
+
+    /**
+     * Tests the saveUsers method against the single-insert path.
+     * Verifies that both paths store the same number of users.
+     */
+    @Test
+    public void testSaveUsers_MatchesSaveUser() {
+        generateUsers("single").forEach(userRepository::saveUser);
+        userRepository.saveUsers(generateUsers("batch"));
+
+        assertEquals(USER_COUNT, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE email LIKE 'single%'", Integer.class));
+        assertEquals(USER_COUNT, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM users WHERE email LIKE 'batch%'", Integer.class));
+    }
+
+    private static List<User> generateUsers(String prefix) {
+        List<User> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            users.add(new User(0, prefix + " user " + i, prefix + i + "@example.com"));
+        }
+        return users;
+    }
+}
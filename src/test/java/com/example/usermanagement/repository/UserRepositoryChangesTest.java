@@ -0,0 +1,172 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.validation.InvalidRequestException;
+
+/**
+ * Integration test for the change feed of {@link UserRepository} against an embedded H2 database.
+ * Runs without a test transaction so that the repository's own transactions commit and roll back.
+ */
+@JdbcTest
+@Import({UserRepository.class, UserIdAllocator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserRepositoryChangesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Empties the tables written by each test.
+     */
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_changes");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    /**
+     * Tests that single and batch inserts are recorded in order, after any earlier point of the feed.
+     */
+    @Test
+    public void testSaveUsers_RecordsChangesInOrder() {
+        String start = userRepository.getChangesAfter("0", 1).getNextSince();
+        userRepository.saveUser(new User(0, "Alice", "alice@example.com"));
+        String afterAlice = userRepository.getChangesAfter(start, 10).getNextSince();
+        userRepository.saveUsers(List.of(new User(0, "Bob", "bob@example.com"), new User(0, "Carol", "carol@example.com")));
+
+        UserChangePage all = userRepository.getChangesAfter(start, 10);
+        assertEquals(List.of("alice@example.com", "bob@example.com", "carol@example.com"), emails(all));
+        assertFalse(all.isHasMore());
+
+        UserChangePage delta = userRepository.getChangesAfter(afterAlice, 10);
+        assertEquals(List.of("bob@example.com", "carol@example.com"), emails(delta), "Only later changes should be returned");
+        assertEquals(all.getNextSince(), delta.getNextSince());
+    }
+
+    /**
+     * Tests that the feed is read in pages that resume where the previous one ended.
+     */
+    @Test
+    public void testGetChangesAfter_Paged() {
+        userRepository.saveUsers(List.of(
+            new User(0, "User 1", "user1@example.com"),
+            new User(0, "User 2", "user2@example.com"),
+            new User(0, "User 3", "user3@example.com")));
+
+        UserChangePage first = userRepository.getChangesAfter("0", 2);
+        assertEquals(List.of("user1@example.com", "user2@example.com"), emails(first));
+        assertTrue(first.isHasMore(), "A third change should follow");
+
+        UserChangePage second = userRepository.getChangesAfter(first.getNextSince(), 2);
+        assertEquals(List.of("user3@example.com"), emails(second));
+        assertFalse(second.isHasMore());
+
+        UserChangePage upToDate = userRepository.getChangesAfter(second.getNextSince(), 2);
+        assertTrue(upToDate.getUsers().isEmpty());
+        assertEquals(second.getNextSince(), upToDate.getNextSince(), "An empty page should keep the client's position");
+    }
+
+    /**
+     * Tests that a failed batch leaves neither users nor changes behind.
+     */
+    @Test
+    public void testSaveUsers_FailureRecordsNothing() {
+        userRepository.saveUser(new User(0, "Alice", "alice@example.com"));
+        String before = userRepository.getChangesAfter("0", 10).getNextSince();
+
+        assertThrows(DuplicateKeyException.class, () -> userRepository.saveUsers(List.of(
+            new User(0, "Bob", "bob@example.com"),
+            new User(0, "Alice Again", "alice@example.com"))));
+
+        assertTrue(userRepository.getChangesAfter(before, 10).getUsers().isEmpty(), "No change should be recorded");
+        assertTrue(userRepository.findByEmail("bob@example.com").isEmpty(), "The batch should be rolled back");
+    }
+
+    /**
+     * Tests a write that commits after a later one has taken its sequence number.
+     * Verifies that the later write waits for the earlier one to commit, so a client
+     * polling in between never moves its cursor past a change that is still to come.
+     */
+    @Test
+    public void testGetChangesAfter_DoesNotSkipLateCommits() throws Exception {
+        String start = userRepository.getChangesAfter("0", 1).getNextSince();
+        CountDownLatch aliceWritten = new CountDownLatch(1);
+        CountDownLatch commitAlice = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> alice = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveUser(new User(0, "Alice", "alice@example.com"));
+                aliceWritten.countDown();
+                awaitQuietly(commitAlice);
+            }));
+            assertTrue(aliceWritten.await(10, TimeUnit.SECONDS));
+            Future<?> bob = executor.submit(() -> userRepository.saveUser(new User(0, "Bob", "bob@example.com")));
+            assertThrows(TimeoutException.class, () -> bob.get(500, TimeUnit.MILLISECONDS),
+                "Bob's write should wait for Alice's to commit");
+
+            UserChangePage during = userRepository.getChangesAfter(start, 10);
+            commitAlice.countDown();
+            alice.get(10, TimeUnit.SECONDS);
+            bob.get(10, TimeUnit.SECONDS);
+            UserChangePage after = userRepository.getChangesAfter(during.getNextSince(), 10);
+
+            List<String> seen = new ArrayList<>(emails(during));
+            seen.addAll(emails(after));
+            assertEquals(List.of("alice@example.com", "bob@example.com"), seen, "No change should be skipped");
+        } finally {
+            commitAlice.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a malformed cursor is rejected.
+     */
+    @Test
+    public void testGetChangesAfter_InvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter("-1", 10));
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter("abc", 10));
+        assertThrows(InvalidRequestException.class, () -> userRepository.getChangesAfter(null, 10));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static List<String> emails(UserChangePage page) {
+        return page.getUsers().stream().map(User::getEmail).toList();
+    }
+}
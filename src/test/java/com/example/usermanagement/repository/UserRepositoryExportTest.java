@@ -0,0 +1,104 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+/**
+ * Integration test for {@link UserRepository#forEachUser} against an embedded H2 database.
+ * Ensures the export reads the table through a forward-only cursor, one fetch-size page at a time.
+ * <p>
+ * The table holds a few pages of rows, enough to cross several fetch boundaries.
+ * Heap use on a large table is measured by {@code UserExportBenchmark} in the
+ * {@code jmh} profile.
+ * </p>
+ */
+@JdbcTest
+@Import({UserRepository.class, UserIdAllocator.class})
+public class UserRepositoryExportTest {
+
+    private static final int FETCH_SIZE = 100;
+
+    private static final int ROW_COUNT = 4 * FETCH_SIZE + FETCH_SIZE / 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserIdAllocator idAllocator;
+
+    private JdbcTemplate exportTemplate;
+
+    private UserRepository userRepository;
+
+    /**
+     * Fills the users table with a few pages of generated rows.
+     */
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) "
+            + "SELECT X, 'User ' || X, 'user' || X || '@example.com' FROM SYSTEM_RANGE(1, " + ROW_COUNT + ")");
+        exportTemplate = spy(new JdbcTemplate(dataSource));
+        userRepository = new UserRepository(exportTemplate, FETCH_SIZE, 1000, idAllocator);
+    }
+
+    /**
+     * Tests the forEachUser method on a table spanning several fetches.
+     * Verifies that every row is passed on in ID order.
+     */
+    @Test
+    public void testForEachUser_StreamsEveryRowInOrder() {
+        AtomicInteger count = new AtomicInteger();
+        AtomicInteger lastId = new AtomicInteger();
+
+        userRepository.forEachUser(user -> {
+            assertTrue(user.getId() > lastId.get(), "Users should be streamed in ID order");
+            lastId.set(user.getId());
+            count.incrementAndGet();
+        });
+
+        assertEquals(ROW_COUNT, count.get(), "Every row should be exported");
+    }
+
+    /**
+     * Tests the statement used by the forEachUser method.
+     * Verifies that rows are read through a forward-only cursor with the configured fetch size
+     * and handed to a row callback rather than collected into a list.
+     */
+    @Test
+    public void testForEachUser_UsesForwardOnlyCursorWithFetchSize() throws SQLException {
+        userRepository.forEachUser(user -> { });
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(exportTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = creator.getValue().createPreparedStatement(connection)) {
+            assertEquals(FETCH_SIZE, statement.getFetchSize(), "Rows should be fetched one page at a time");
+            assertEquals(ResultSet.TYPE_FORWARD_ONLY, statement.getResultSetType());
+            assertEquals(ResultSet.CONCUR_READ_ONLY, statement.getResultSetConcurrency());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.example.usermanagement.entity.User;
+
+/**
+ * Integration test for the single-user lookups of {@link UserRepository} against an embedded H2 database.
+ * Ensures the schema enforces unique email addresses.
+ */
+@JdbcTest
+@Import({UserRepository.class, UserIdAllocator.class})
+public class UserRepositoryLookupTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+
+    /**
+     * Inserts two users and remembers the first one as stored.
+     */
+    @BeforeEach
+    public void setUp() {
+        userRepository.saveUsers(List.of(
+            new User(0, "Alice", "alice@example.com"),
+            new User(0, "Bob", "bob@example.com")));
+        alice = userRepository.findByEmail("alice@example.com").orElseThrow();
+    }
+
+    /**
+     * Tests the findById and findByEmail methods.
+     * Verifies that both return the same stored user.
+     */
+    @Test
+    public void testFindByIdAndEmail() {
+        Optional<User> byId = userRepository.findById(alice.getId());
+
+        assertTrue(byId.isPresent(), "The user should be found by ID");
+        assertEquals("Alice", byId.get().getName());
+        assertEquals("alice@example.com", byId.get().getEmail());
+        assertTrue(userRepository.findById(alice.getId() + 1000).isEmpty(), "Unknown IDs should not be found");
+        assertTrue(userRepository.findByEmail("nobody@example.com").isEmpty(), "Unknown emails should not be found");
+    }
+
+    /**
+     * Tests the findExistingEmails method.
+     * Verifies that only addresses already stored are returned.
+     */
+    @Test
+    public void testFindExistingEmails() {
+        Set<String> existing = userRepository.findExistingEmails(
+            List.of("alice@example.com", "carol@example.com", "bob@example.com"));
+
+        assertEquals(Set.of("alice@example.com", "bob@example.com"), existing);
+    }
+
+    /**
+     * Tests the unique email index created by the schema.
+     * Verifies that a second user with the same email is rejected.
+     */
+    @Test
+    public void testSaveUser_DuplicateEmailRejected() {
+        assertThrows(DuplicateKeyException.class,
+            () -> userRepository.saveUser(new User(0, "Alice Again", "alice@example.com")));
+    }
+}
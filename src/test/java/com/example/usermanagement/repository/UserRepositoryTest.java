@@ -2,6 +2,7 @@ package com.example.usermanagement.repository;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,13 +10,16 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 
 import com.example.usermanagement.entity.User;
 
@@ -29,6 +33,9 @@ public class UserRepositoryTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
+    @Mock
+    private UserIdAllocator idAllocator;
+
     @InjectMocks
     private UserRepository userRepository;
 
@@ -52,7 +59,7 @@ public class UserRepositoryTest {
     @Test
     public void testGetAllUsers() {
         // Premise: JdbcTemplate returns a list of users.
-        when(jdbcTemplate.query(anyString(), any(BeanPropertyRowMapper.class)))
+        when(jdbcTemplate.query(anyString(), any(UserRowMapper.class)))
             .thenReturn(Arrays.asList(user1, user2));
 
         // Application Logic: Call the method under test.
@@ -64,19 +71,106 @@ public class UserRepositoryTest {
         assertEquals(user2, users.get(1), "The second user should be user2");
     }
 
+    /**
+     * Tests the getUsersAfter method.
+     * Verifies that the keyset query is bound with the cursor ID and limit.
+     */
+    @Test
+    public void testGetUsersAfter() {
+        // Premise: JdbcTemplate returns the users after the cursor.
+        when(jdbcTemplate.query(
+                eq("SELECT id, name, email FROM users WHERE id > ? ORDER BY id LIMIT ?"),
+                any(UserRowMapper.class), eq(1), eq(10)))
+            .thenReturn(Arrays.asList(user2));
+
+        // Application Logic: Call the method under test.
+        List<User> users = userRepository.getUsersAfter(1, 10);
+
+        // Pass/Fail Condition: Only the user after the cursor is returned.
+        assertEquals(1, users.size(), "The size of the user list should be 1");
+        assertEquals(user2, users.get(0), "The returned user should be user2");
+    }
+
+    /**
+     * Tests the findById method.
+     * Verifies that the single-row query by primary key is used.
+     */
+    @Test
+    public void testFindById() {
+        when(jdbcTemplate.query(eq("SELECT id, name, email FROM users WHERE id = ?"), any(UserRowMapper.class), eq(1)))
+            .thenReturn(Arrays.asList(user1));
+
+        Optional<User> user = userRepository.findById(1);
+
+        assertEquals(Optional.of(user1), user, "The returned user should be user1");
+    }
+
+    /**
+     * Tests the findByEmail method when no row matches.
+     * Verifies that an empty Optional is returned.
+     */
+    @Test
+    public void testFindByEmail_NotFound() {
+        when(jdbcTemplate.query(eq("SELECT id, name, email FROM users WHERE email = ?"), any(UserRowMapper.class),
+                eq("nobody@example.com")))
+            .thenReturn(List.of());
+
+        Optional<User> user = userRepository.findByEmail("nobody@example.com");
+
+        assertEquals(Optional.empty(), user, "No user should be found");
+    }
+
     /**
      * Tests the saveUser method.
      * Verifies that a user is saved to the database.
      */
     @Test
     public void testSaveUser() {
+        // Premise: The allocator hands out ID 42 and the change sequence is at 5.
+        when(idAllocator.nextId()).thenReturn(42);
+        stubChangeSequence(1, 6);
+
         // Application Logic: Call the method under test.
         userRepository.saveUser(user1);
 
-        // Verify that the jdbcTemplate.update method was called with the correct SQL and parameters.
+        // Verify that the user was inserted with its allocated ID, which is also set on the object.
         verify(jdbcTemplate).update(
-            "INSERT INTO users (name, email) VALUES (?, ?)",
-            user1.getName(), user1.getEmail()
+            "INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+            42, user1.getName(), user1.getEmail()
         );
+        assertEquals(42, user1.getId());
+        verify(jdbcTemplate).update("INSERT INTO user_changes (seq, user_id) VALUES (?, ?)", 5L, 42);
+    }
+
+    /**
+     * Tests the saveUsers method.
+     * Verifies that all users are sent to the database as one JDBC batch operation.
+     */
+    @Test
+    public void testSaveUsers() {
+        List<User> users = Arrays.asList(user1, user2);
+        when(idAllocator.nextId()).thenReturn(7, 8);
+        stubChangeSequence(2, 7);
+
+        // Application Logic: Call the method under test.
+        userRepository.saveUsers(users);
+
+        // Verify that every user got its ID before jdbcTemplate.batchUpdate was called once with every user.
+        assertEquals(7, user1.getId());
+        assertEquals(8, user2.getId());
+        verify(jdbcTemplate).batchUpdate(
+            eq("INSERT INTO users (id, name, email) VALUES (?, ?, ?)"),
+            eq(users), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    /**
+     * Makes every reservation of {@code count} change sequence numbers succeed, leaving the sequence at {@code next}.
+     * The reservation is stubbed leniently because the user inserts go through the same {@code update} method.
+     */
+    private void stubChangeSequence(int count, long next) {
+        lenient().when(jdbcTemplate.update("UPDATE user_id_sequence SET next_value = next_value + ? WHERE name = ?", count, "user_changes"))
+            .thenReturn(1);
+        when(jdbcTemplate.queryForObject("SELECT next_value FROM user_id_sequence WHERE name = ?", Long.class, "user_changes"))
+            .thenReturn(next);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,86 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.usermanagement.entity.User;
+
+/**
+ * Test class for UserRowMapper.
+ * Ensures rows are mapped by index and column lookups happen once per result set.
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserRowMapperTest {
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ResultSet otherResultSet;
+
+    /**
+     * Tests the mapRow method over several rows of one result set.
+     * Verifies that each column index is resolved only once.
+     */
+    @Test
+    public void testMapRow_ResolvesColumnsOncePerResultSet() throws SQLException {
+        // Premise: The result set has the columns in a different order than the entity.
+        when(resultSet.findColumn("id")).thenReturn(3);
+        when(resultSet.findColumn("name")).thenReturn(1);
+        when(resultSet.findColumn("email")).thenReturn(2);
+        when(resultSet.getInt(3)).thenReturn(1, 2);
+        when(resultSet.getString(1)).thenReturn("John Doe", "Jane Smith");
+        when(resultSet.getString(2)).thenReturn("john.doe@example.com", "jane.smith@example.com");
+
+        // Application Logic: Map two rows with the same mapper.
+        UserRowMapper rowMapper = new UserRowMapper();
+        User first = rowMapper.mapRow(resultSet, 0);
+        User second = rowMapper.mapRow(resultSet, 1);
+
+        // Pass/Fail Condition: Both rows are mapped and columns were looked up once.
+        assertEquals(1, first.getId());
+        assertEquals("John Doe", first.getName());
+        assertEquals("john.doe@example.com", first.getEmail());
+        assertEquals(2, second.getId());
+        assertEquals("Jane Smith", second.getName());
+        assertEquals("jane.smith@example.com", second.getEmail());
+        verify(resultSet, times(1)).findColumn("id");
+        verify(resultSet, times(1)).findColumn("name");
+        verify(resultSet, times(1)).findColumn("email");
+    }
+
+    /**
+     * Tests the mapRow method when the mapper is reused for another result set.
+     * Verifies that the column indexes are resolved again for the new result set.
+     */
+    @Test
+    public void testMapRow_ResolvesColumnsAgainForNewResultSet() throws SQLException {
+        when(resultSet.findColumn("id")).thenReturn(1);
+        when(resultSet.findColumn("name")).thenReturn(2);
+        when(resultSet.findColumn("email")).thenReturn(3);
+        when(otherResultSet.findColumn("id")).thenReturn(1);
+        when(otherResultSet.findColumn("name")).thenReturn(3);
+        when(otherResultSet.findColumn("email")).thenReturn(2);
+        when(otherResultSet.getInt(1)).thenReturn(7);
+        when(otherResultSet.getString(3)).thenReturn("Alice");
+        when(otherResultSet.getString(2)).thenReturn("alice@example.com");
+
+        UserRowMapper rowMapper = new UserRowMapper();
+        rowMapper.mapRow(resultSet, 0);
+        User user = rowMapper.mapRow(otherResultSet, 0);
+
+        assertEquals(7, user.getId());
+        assertEquals("Alice", user.getName());
+        assertEquals("alice@example.com", user.getEmail());
+    }
+}
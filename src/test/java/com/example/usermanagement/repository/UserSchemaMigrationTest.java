@@ -0,0 +1,83 @@
+package com.example.usermanagement.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+/**
+ * Integration test for {@code schema.sql} followed by {@code schema-h2.sql} against an embedded H2 database.
+ * Ensures the scripts upgrade a users table created before the unique email index and the
+ * {@link UserIdAllocator}, and can run on every start.
+ */
+public class UserSchemaMigrationTest {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates a users table the way it was created before the unique email index was added
+     * and while IDs were still generated by the database.
+     */
+    @BeforeEach
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id INT AUTO_INCREMENT PRIMARY KEY, "
+            + "name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL)");
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Alice', 'alice@example.com')");
+    }
+
+    /**
+     * Shuts the embedded database down.
+     */
+    @AfterEach
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    /**
+     * Tests the schema scripts on an existing table, applied twice as on two starts.
+     * Verifies that the unique email index is added without touching existing rows.
+     */
+    @Test
+    public void testSchemaScripts_AddUniqueEmailIndexToExistingTable() {
+        initializeSchema();
+        initializeSchema();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+        assertThrows(DuplicateKeyException.class, () ->
+            jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (2, 'Alice Again', 'alice@example.com')"));
+    }
+
+    /**
+     * Tests the schema scripts on an existing table whose IDs were generated by the database.
+     * Verifies that an insert without an ID is rejected instead of taking a generated one
+     * the allocator may hand out again.
+     */
+    @Test
+    public void testSchemaScripts_DropGeneratedIds() {
+        initializeSchema();
+        initializeSchema();
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+            jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('Bob', 'bob@example.com')"));
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (2, 'Bob', 'bob@example.com')");
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    private void initializeSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("schema-h2.sql"))
+            .execute(database);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+/**
+ * Test class for {@link CompactUserStore}.
+ * Loads the store from a mocked repository and checks lookups, pages, copying on save and catch-up.
+ */
+@ExtendWith(MockitoExtension.class)
+class CompactUserStoreTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private CompactUserStore store;
+
+    /**
+     * Tests lookups by ID and email, including names and emails outside ASCII.
+     */
+    @Test
+    void testFindByIdAndEmail() {
+        load(List.of(
+            new User(1, "John Doe", "john.doe@example.com"),
+            new User(2, "Zoë Łukasiewicz", "zoë@exämple.com"),
+            new User(5, "李小龍", "li@example.cn")));
+
+        assertUser(2, "Zoë Łukasiewicz", "zoë@exämple.com", store.findById(2));
+        assertUser(5, "李小龍", "li@example.cn", store.findByEmail("li@example.cn"));
+        assertUser(2, "Zoë Łukasiewicz", "zoë@exämple.com", store.findByEmail("zoë@exämple.com"));
+        assertTrue(store.findById(3).isEmpty(), "Unknown IDs should not be found");
+        assertTrue(store.findByEmail("JOHN.DOE@example.com").isEmpty(), "Emails should match exactly");
+    }
+
+    /**
+     * Tests that keyset pages are served in ID order.
+     */
+    @Test
+    void testGetUsersAfter() {
+        load(List.of(new User(1, "A1", "a1@example.com"), new User(4, "A4", "a4@example.com"),
+            new User(9, "A9", "a9@example.com")));
+
+        assertEquals(List.of(1, 4), ids(store.getUsersAfter(0, 2)));
+        assertEquals(List.of(4, 9), ids(store.getUsersAfter(1, 5)));
+        assertEquals(List.of(9), ids(store.getUsersAfter(5, 5)));
+        assertTrue(store.getUsersAfter(9, 5).isEmpty());
+    }
+
+    /**
+     * Tests that enough users to grow every array and table are all found again.
+     */
+    @Test
+    void testGrowth() {
+        load(users(1, 5000));
+
+        assertEquals(5000, store.size());
+        for (int id = 1; id <= 5000; id++) {
+            assertUser(id, "User " + id, "user" + id + "@example.com", store.findById(id));
+            assertEquals(id, store.findByEmail("user" + id + "@example.com").orElseThrow().getId());
+        }
+    }
+
+    /**
+     * Tests that the store can keep its strings outside the heap.
+     */
+    @Test
+    void testOffHeap() {
+        ReflectionTestUtils.setField(store, "offHeap", true);
+        load(users(1, 3000));
+
+        assertUser(2999, "User 2999", "user2999@example.com", store.findByEmail("user2999@example.com"));
+        assertEquals(List.of(3000), ids(store.getUsersAfter(2999, 10)));
+    }
+
+    /**
+     * Tests that reads within the catch-up interval do not query the database.
+     */
+    @Test
+    void testReadsWithinIntervalDoNotCatchUp() {
+        load(users(1, 2));
+
+        store.findById(1);
+        store.getUsersAfter(0, 10);
+
+        verify(userRepository, times(1)).getChangesAfter(anyString(), anyInt());
+    }
+
+    /**
+     * Tests that a user committed by another instance with a lower ID than those
+     * already stored is read from the change feed and served in ID order.
+     */
+    @Test
+    void testCatchUpFromChangeFeed_OutOfOrder() {
+        load(List.of(new User(1, "A1", "a1@example.com"), new User(3, "A3", "a3@example.com")));
+        when(userRepository.getChangesAfter("7", 10_000))
+            .thenReturn(new UserChangePage(List.of(new User(2, "A2", "a2@example.com")), "8", false));
+        when(userRepository.getChangesAfter("8", 10_000)).thenReturn(new UserChangePage(List.of(), "8", false));
+        ReflectionTestUtils.setField(store, "catchUpInterval", Duration.ZERO);
+
+        assertUser(2, "A2", "a2@example.com", store.findByEmail("a2@example.com"));
+        assertEquals(List.of(1, 2, 3), ids(store.getUsersAfter(0, 10)));
+        assertEquals(List.of(3), ids(store.getUsersAfter(2, 10)));
+    }
+
+    /**
+     * Tests that saved users are served right away, in ID order, and stored once
+     * when the change feed returns them again.
+     */
+    @Test
+    void testAddAll_ServedAtOnceAndStoredOnce() {
+        load(users(1, 3));
+        User late = new User(10, "Late", "late@example.com");
+        User early = new User(5, "Early", "early@example.com");
+
+        store.addAll(List.of(late));
+        store.addAll(List.of(early));
+        assertEquals(List.of(3, 5, 10), ids(store.getUsersAfter(2, 10)));
+
+        when(userRepository.getChangesAfter("7", 10_000))
+            .thenReturn(new UserChangePage(List.of(early, late), "9", false));
+        store.refresh();
+        assertEquals(5, store.size());
+        assertUser(5, "Early", "early@example.com", store.findById(5));
+    }
+
+    private void load(List<User> users) {
+        when(userRepository.getChangeCursor()).thenReturn("7");
+        when(userRepository.getUsersAfter(0, 10_000)).thenReturn(users);
+        when(userRepository.getChangesAfter("7", 10_000)).thenReturn(new UserChangePage(List.of(), "7", false));
+        store.load();
+    }
+
+    private static List<User> users(int from, int to) {
+        List<User> users = new ArrayList<>();
+        for (int id = from; id <= to; id++) {
+            users.add(new User(id, "User " + id, "user" + id + "@example.com"));
+        }
+        return users;
+    }
+
+    private static List<Integer> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    private static void assertUser(int id, String name, String email, Optional<User> actual) {
+        assertTrue(actual.isPresent(), "User " + id + " should be found");
+        assertEquals(id, actual.get().getId());
+        assertEquals(name, actual.get().getName());
+        assertEquals(email, actual.get().getEmail());
+    }
+}
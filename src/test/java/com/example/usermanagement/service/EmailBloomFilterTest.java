@@ -0,0 +1,150 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test class for {@link EmailBloomFilter}.
+ * Builds the filter from a mocked repository and checks which addresses still reach the database.
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailBloomFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private EmailBloomFilter filter;
+
+    /**
+     * Tests that every address is checked in the database until the filter is built.
+     */
+    @Test
+    void testNotBuilt_ChecksDatabase() {
+        when(userRepository.findExistingEmails(List.of("alice@example.com"))).thenReturn(Set.of("alice@example.com"));
+
+        assertEquals(Set.of("alice@example.com"), filter.findExistingEmails(List.of("alice@example.com")));
+        assertFalse(filter.isReady());
+    }
+
+    /**
+     * Tests that only addresses the filter cannot rule out are looked up, ignoring case.
+     */
+    @Test
+    void testOnlyPossiblyTakenAddressesReachDatabase() {
+        build("alice@example.com", "bob@example.com");
+        when(userRepository.findExistingEmails(List.of("Alice@Example.com"))).thenReturn(Set.of("Alice@Example.com"));
+
+        Set<String> existing = filter.findExistingEmails(List.of("Alice@Example.com", "carol@example.com"));
+
+        assertEquals(Set.of("Alice@Example.com"), existing);
+        verify(userRepository, times(1)).findExistingEmails(any());
+    }
+
+    /**
+     * Tests that a new address skips the database and becomes possibly taken once it is added.
+     */
+    @Test
+    void testAdd() {
+        build("alice@example.com");
+
+        assertTrue(filter.findExistingEmails(List.of("dave@example.com")).isEmpty());
+        verify(userRepository, never()).findExistingEmails(any());
+
+        filter.add("dave@example.com");
+        filter.findExistingEmails(List.of("dave@example.com"));
+        verify(userRepository, times(1)).findExistingEmails(List.of("dave@example.com"));
+    }
+
+    /**
+     * Tests that the observed false-positive rate stays near the configured one when the filter is full.
+     */
+    @Test
+    void testFalsePositiveRate() {
+        ReflectionTestUtils.setField(filter, "minCapacity", 10_000L);
+        build();
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+        List<String> free = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            free.add("other" + i + "@example.com");
+        }
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+        filter.findExistingEmails(free);
+
+        assertEquals(0.01, filter.getFalsePositiveRate(), 0.005);
+        assertEquals(0.01, filter.getExpectedFalsePositiveRate(), 0.002);
+        assertTrue(filter.getMemoryUsage() < 15_000, "10k addresses at 1% should take about 12 KB");
+    }
+
+    /**
+     * Tests that the filter is rebuilt larger once it holds more addresses than it was sized for.
+     */
+    @Test
+    void testRebuildWhenFull() throws InterruptedException {
+        ReflectionTestUtils.setField(filter, "minCapacity", 10L);
+        build();
+        long memory = filter.getMemoryUsage();
+        when(userRepository.countUsers()).thenReturn(1_000L);
+
+        for (int i = 0; i <= 10; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (filter.getMemoryUsage() == memory && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(filter.getMemoryUsage() > memory, "The filter should have been rebuilt for 2000 addresses");
+    }
+
+    /**
+     * Tests that the filter publishes its metrics.
+     */
+    @Test
+    void testMetrics() {
+        build("alice@example.com");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        filter.findExistingEmails(List.of("carol@example.com"));
+
+        assertEquals(1.0, registry.get("users.email.filter.checks").tag("result", "new").functionCounter().count());
+        assertEquals(1.0, registry.get("users.email.filter.size").gauge().value());
+        assertEquals(filter.getMemoryUsage(), registry.get("users.email.filter.memory").gauge().value());
+        assertEquals(0.0, registry.get("users.email.filter.false.positive.rate").gauge().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void build(String... emails) {
+        when(userRepository.countUsers()).thenReturn((long) emails.length);
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            for (int i = 0; i < emails.length; i++) {
+                action.accept(new User(i + 1, "User " + i, emails[i]));
+            }
+            return null;
+        }).when(userRepository).forEachUser(any(Consumer.class));
+        filter.rebuild();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link SingleFlight}.
+ * Verifies that concurrent calls for one key share a single load.
+ */
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final SingleFlight<String, Object> flight = new SingleFlight<>();
+
+    /**
+     * Tests that concurrent callers for the same key run the loader once and share its result.
+     */
+    @Test
+    void testConcurrentCallers_ShareOneCall() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+        ConcurrentLinkedQueue<Object> results = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = start(CALLERS, () -> results.add(flight.execute("key", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return result;
+        })));
+        awaitWaiting(callers);
+        release.countDown();
+        joinAll(callers);
+
+        assertEquals(1, loads.get(), "The loader should run once");
+        assertEquals(CALLERS, results.size());
+        results.forEach(shared -> assertSame(result, shared, "Every caller should receive the shared result"));
+        assertEquals(0, flight.size(), "Nothing should be kept after the call");
+    }
+
+    /**
+     * Tests that calls for different keys do not wait for each other.
+     */
+    @Test
+    void testDifferentKeys_RunSeparately() {
+        Object result = flight.execute("a", () -> "a" + flight.execute("b", () -> "b"));
+
+        assertEquals("ab", result, "A nested call for another key should not wait for the outer one");
+    }
+
+    /**
+     * Tests that a failure is thrown to every caller that joined the call, and the next call runs again.
+     */
+    @Test
+    void testFailure_SharedAndNotKept() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("Database unavailable");
+        ConcurrentLinkedQueue<Throwable> thrown = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = start(4, () -> {
+            try {
+                flight.execute("key", () -> {
+                    await(release);
+                    throw failure;
+                });
+            } catch (IllegalStateException ex) {
+                thrown.add(ex);
+            }
+        });
+        awaitWaiting(callers);
+        release.countDown();
+        joinAll(callers);
+
+        assertEquals(4, thrown.size());
+        thrown.forEach(ex -> assertSame(failure, ex));
+        assertEquals("ok", flight.execute("key", () -> "ok"), "A failed call should not be kept");
+    }
+
+    /**
+     * Tests that a caller arriving after {@link SingleFlight#forgetAll()} starts a new call.
+     */
+    @Test
+    void testForgetAll_NewCallersStartNewCall() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Object stale = new Object();
+        ConcurrentLinkedQueue<Object> results = new ConcurrentLinkedQueue<>();
+
+        List<Thread> first = start(1, () -> results.add(flight.execute("key", () -> {
+            await(release);
+            return stale;
+        })));
+        awaitWaiting(first);
+        flight.forgetAll();
+        Object fresh = flight.execute("key", Object::new);
+        release.countDown();
+        joinAll(first);
+
+        assertNotSame(stale, fresh, "A call after forgetAll should not join the earlier one");
+        assertSame(stale, results.peek());
+    }
+
+    /**
+     * Starts the given number of platform threads running the task.
+     */
+    static List<Thread> start(int count, Runnable task) {
+        List<Thread> threads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            threads.add(Thread.ofPlatform().start(task));
+        }
+        return threads;
+    }
+
+    /**
+     * Waits until every thread is parked, either running the blocked loader or waiting for its result.
+     */
+    static void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "Callers should be waiting for the call in flight");
+            Thread.sleep(1);
+        }
+    }
+
+    static void joinAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive(), "Caller should have finished");
+        }
+    }
+
+    static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
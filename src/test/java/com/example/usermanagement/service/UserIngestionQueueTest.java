@@ -0,0 +1,214 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.usermanagement.dto.BatchItemError;
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.IngestionStatus;
+import com.example.usermanagement.entity.User;
+
+/**
+ * Unit test class for {@link UserIngestionQueue}.
+ * Ensures queued users are written in batches, backpressure is applied, failed writes are retried
+ * or narrowed down to the offending users, and shutdown flushes the queue.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserIngestionQueueTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private UserIngestionQueue ingestionQueue;
+
+    /**
+     * Stops the drainer thread if a test left it running.
+     */
+    @AfterEach
+    void tearDown() {
+        if (ingestionQueue.isRunning()) {
+            ingestionQueue.stop();
+        }
+    }
+
+    /**
+     * Tests that an accepted user is written and its status becomes CREATED with the assigned ID.
+     */
+    @Test
+    void testSubmit_UserIsWrittenAndTracked() throws InterruptedException {
+        when(userService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(7));
+            return new BatchResult(users.size(), List.of());
+        });
+        ingestionQueue.start();
+
+        IngestionStatus accepted = ingestionQueue.submit(new User(0, "Alice", "alice@example.com")).orElseThrow();
+
+        assertEquals(IngestionStatus.State.PENDING, accepted.getState());
+        assertNull(accepted.getUserId());
+        IngestionStatus created = awaitFinalState(accepted.getTrackingId());
+        assertEquals(IngestionStatus.State.CREATED, created.getState());
+        assertEquals(7, created.getUserId());
+        verify(userService).saveUsers(argThat(users -> users.size() == 1 && "Alice".equals(users.get(0).getName())));
+    }
+
+    /**
+     * Tests that users rejected by the service are reported as FAILED with their errors.
+     */
+    @Test
+    void testSubmit_RejectedUserIsReportedAsFailed() throws InterruptedException {
+        when(userService.saveUsers(anyList())).thenReturn(
+            new BatchResult(0, List.of(new BatchItemError(0, Map.of("email", UserService.DUPLICATE_EMAIL_MESSAGE)))));
+        ingestionQueue.start();
+
+        IngestionStatus accepted = ingestionQueue.submit(new User(0, "Alice", "alice@example.com")).orElseThrow();
+        IngestionStatus status = awaitFinalState(accepted.getTrackingId());
+
+        assertEquals(IngestionStatus.State.FAILED, status.getState());
+        assertEquals(UserService.DUPLICATE_EMAIL_MESSAGE, status.getErrors().get("email"));
+    }
+
+    /**
+     * Tests that a batch failing with a transient error is written again.
+     */
+    @Test
+    void testSubmit_TransientFailureIsRetried() throws InterruptedException {
+        when(userService.saveUsers(anyList()))
+            .thenThrow(new QueryTimeoutException("Lock wait timeout"))
+            .thenAnswer(invocation -> {
+                List<User> users = invocation.getArgument(0);
+                users.forEach(user -> user.setId(7));
+                return new BatchResult(users.size(), List.of());
+            });
+        ReflectionTestUtils.setField(ingestionQueue, "retryBackoff", Duration.ofMillis(1));
+        ingestionQueue.start();
+
+        IngestionStatus accepted = ingestionQueue.submit(new User(0, "Alice", "alice@example.com")).orElseThrow();
+        IngestionStatus status = awaitFinalState(accepted.getTrackingId());
+
+        assertEquals(IngestionStatus.State.CREATED, status.getState());
+        assertEquals(7, status.getUserId());
+        verify(userService, times(2)).saveUsers(anyList());
+    }
+
+    /**
+     * Tests that a failing batch is written one user at a time.
+     * Verifies that only the user that cannot be saved is reported as FAILED.
+     */
+    @Test
+    void testSubmit_FailedBatchIsNarrowedToFailingUser() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        User first = user(0);
+        User bad = user(1);
+        when(userService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.contains(first)) {
+                writing.countDown();
+                release.await();
+            }
+            if (users.contains(bad)) {
+                throw new DataIntegrityViolationException("Value too long for column");
+            }
+            return new BatchResult(users.size(), List.of());
+        });
+        ingestionQueue.start();
+
+        // The first user holds the drainer so that the next two are written as one batch.
+        assertTrue(ingestionQueue.submit(first).isPresent());
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        IngestionStatus failing = ingestionQueue.submit(bad).orElseThrow();
+        IngestionStatus good = ingestionQueue.submit(user(2)).orElseThrow();
+        release.countDown();
+
+        assertEquals(IngestionStatus.State.FAILED, awaitFinalState(failing.getTrackingId()).getState());
+        assertEquals(IngestionStatus.State.CREATED, awaitFinalState(good.getTrackingId()).getState());
+        verify(userService).saveUsers(argThat(users -> users.size() == 2));
+    }
+
+    /**
+     * Tests that a full queue refuses new users.
+     */
+    @Test
+    void testSubmit_FullQueueRefusesUsers() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.saveUsers(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return new BatchResult(invocation.<List<User>>getArgument(0).size(), List.of());
+        });
+        ReflectionTestUtils.setField(ingestionQueue, "capacity", 2);
+        ingestionQueue.start();
+
+        // The first user is taken by the drainer, which then blocks while writing it.
+        assertTrue(ingestionQueue.submit(user(0)).isPresent());
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        assertTrue(ingestionQueue.submit(user(1)).isPresent());
+        assertTrue(ingestionQueue.submit(user(2)).isPresent());
+        Optional<IngestionStatus> refused = ingestionQueue.submit(user(3));
+
+        release.countDown();
+        assertTrue(refused.isEmpty(), "The queue should refuse users beyond its capacity");
+    }
+
+    /**
+     * Tests that stopping the queue writes every accepted user before returning.
+     */
+    @Test
+    void testStop_FlushesAcceptedUsers() {
+        List<User> written = new ArrayList<>();
+        when(userService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<User> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            return new BatchResult(batch.size(), List.of());
+        });
+        ingestionQueue.start();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ingestionQueue.submit(user(i)).isPresent());
+        }
+
+        ingestionQueue.stop();
+
+        assertEquals(1000, written.size(), "Every accepted user should be written on shutdown");
+        assertTrue(ingestionQueue.submit(user(1000)).isEmpty(), "A stopped queue should refuse users");
+    }
+
+    private static User user(int i) {
+        return new User(0, "User " + i, "user" + i + "@example.com");
+    }
+
+    private IngestionStatus awaitFinalState(String trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            IngestionStatus status = ingestionQueue.getStatus(trackingId).orElseThrow();
+            if (status.getState() != IngestionStatus.State.PENDING) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        fail("User " + trackingId + " was not written in time");
+        return null;
+    }
+}
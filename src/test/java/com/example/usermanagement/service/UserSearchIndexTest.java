@@ -0,0 +1,137 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.validation.InvalidRequestException;
+
+/**
+ * Test class for {@link UserSearchIndex}.
+ * Builds the index from a mocked repository and checks matching, ranking, indexing on save and catch-up.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserSearchIndex searchIndex;
+
+    private final User john = new User(1, "John Doe", "john.doe@example.com");
+
+    private final User jane = new User(2, "Jane Johnson", "jane@example.com");
+
+    private final User bob = new User(3, "Bob Smith", "bjohn@corp.org");
+
+    /**
+     * Indexes three users, with the change feed at position "3".
+     */
+    @BeforeEach
+    void setUp() {
+        when(userRepository.getChangeCursor()).thenReturn("3");
+        when(userRepository.getUsersAfter(0, 10_000)).thenReturn(List.of(john, jane, bob));
+        when(userRepository.getChangesAfter("3", 10_000)).thenReturn(new UserChangePage(List.of(), "3", false));
+        searchIndex.build();
+    }
+
+    /**
+     * Tests that prefix matches rank ahead of matches inside a name or email.
+     */
+    @Test
+    void testSearch_PrefixMatchesFirst() {
+        assertEquals(List.of(john, jane, bob), searchIndex.search("John", 10));
+    }
+
+    /**
+     * Tests that every gram of the query must be present in the same user.
+     */
+    @Test
+    void testSearch_Substring() {
+        assertEquals(List.of(bob), searchIndex.search("corp.o", 10));
+        assertEquals(List.of(john), searchIndex.search("N DOE", 10));
+        assertTrue(searchIndex.search("johnx", 10).isEmpty());
+    }
+
+    /**
+     * Tests that two-character queries only match prefixes.
+     */
+    @Test
+    void testSearch_ShortQueryMatchesPrefixOnly() {
+        assertEquals(List.of(jane), searchIndex.search("ja", 10));
+        assertTrue(searchIndex.search("oh", 10).isEmpty());
+    }
+
+    /**
+     * Tests that the number of results is capped by the limit.
+     */
+    @Test
+    void testSearch_Limit() {
+        assertEquals(List.of(john, jane), searchIndex.search("john", 2));
+    }
+
+    /**
+     * Tests that a query shorter than the minimum length is rejected.
+     */
+    @Test
+    void testSearch_QueryTooShort() {
+        assertThrows(InvalidRequestException.class, () -> searchIndex.search(" j ", 10));
+    }
+
+    /**
+     * Tests that searches within the catch-up interval do not query the database.
+     */
+    @Test
+    void testSearch_WithinIntervalDoesNotCatchUp() {
+        searchIndex.search("john", 10);
+
+        verify(userRepository, times(1)).getChangesAfter(anyString(), anyInt());
+    }
+
+    /**
+     * Tests that users written by another instance are read from the change feed once the interval has passed.
+     */
+    @Test
+    void testSearch_CatchesUpFromChangeFeed() {
+        User johnny = new User(4, "Johnny Cash", "cash@example.com");
+        when(userRepository.getChangesAfter("3", 10_000)).thenReturn(new UserChangePage(List.of(johnny), "4", false));
+        when(userRepository.getChangesAfter("4", 10_000)).thenReturn(new UserChangePage(List.of(), "4", false));
+        ReflectionTestUtils.setField(searchIndex, "catchUpInterval", Duration.ZERO);
+
+        assertEquals(List.of(john, johnny, jane, bob), searchIndex.search("john", 10));
+        assertEquals(List.of(johnny), searchIndex.search("cash", 10));
+        assertEquals(4, searchIndex.size());
+        verify(userRepository, times(1)).getUsersAfter(anyInt(), anyInt());
+    }
+
+    /**
+     * Tests that saved users are searchable right away and indexed once when the feed returns them again.
+     */
+    @Test
+    void testAddAll_IndexesSavedUsersOnce() {
+        User johnny = new User(4, "Johnny Cash", "cash@example.com");
+        searchIndex.addAll(List.of(johnny));
+
+        assertEquals(List.of(johnny), searchIndex.search("cash", 10));
+
+        when(userRepository.getChangesAfter("3", 10_000)).thenReturn(new UserChangePage(List.of(johnny), "4", false));
+        searchIndex.refresh();
+        assertEquals(List.of(johnny), searchIndex.search("cash", 10));
+        assertEquals(4, searchIndex.size());
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.usermanagement.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.usermanagement.config.CacheConfig;
+import com.example.usermanagement.dto.UserPage;
+import com.example.usermanagement.entity.User;
+import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.validation.UserValidator;
+
+/**
+ * Test class for the caching behaviour of {@link UserService}.
+ * Runs the service behind the Spring cache proxy with the application's Caffeine settings.
+ */
+@SpringBootTest(classes = {UserService.class, CacheConfig.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+class UserServiceCacheTest {
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private UserValidator validator;
+
+    @MockitoBean
+    private UserSearchIndex searchIndex;
+
+    @MockitoBean
+    private EmailBloomFilter emailFilter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Empties the cache so that every test starts cold.
+     */
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USER_PAGES).clear();
+        cacheManager.getCache(CacheConfig.USERS_BY_ID).clear();
+        cacheManager.getCache(CacheConfig.USERS_BY_EMAIL).clear();
+        when(userRepository.getChangeCursor()).thenReturn("1");
+    }
+
+    /**
+     * Tests that a repeated page read is served from the cache.
+     * Ensures the repository is queried only once for identical requests.
+     */
+    @Test
+    void testGetUsersPage_SecondReadIsCached() {
+        when(userRepository.getUsersAfter(0, 11)).thenReturn(List.of(new User(1, "Alice", "alice@example.com")));
+
+        UserPage first = readPage(10);
+        UserPage second = readPage(10);
+
+        assertSame(first, second, "The second read should return the cached page");
+        verify(userRepository, times(1)).getUsersAfter(0, 11);
+    }
+
+    /**
+     * Tests that different page sizes are cached under different keys.
+     */
+    @Test
+    void testGetUsersPage_DifferentLimitsAreSeparateEntries() {
+        when(userRepository.getUsersAfter(eq(0), anyInt())).thenReturn(List.of());
+
+        readPage(10);
+        readPage(20);
+
+        verify(userRepository, times(1)).getUsersAfter(0, 11);
+        verify(userRepository, times(1)).getUsersAfter(0, 21);
+    }
+
+    /**
+     * Tests that a write by another instance, which does not evict this instance's cache, is seen.
+     * Ensures pages are cached under the change feed position they were read at.
+     */
+    @Test
+    void testGetUsersPage_ChangeFeedMoveIsNewEntry() {
+        when(userRepository.getUsersAfter(0, 11)).thenReturn(List.of());
+
+        readPage(10);
+        when(userRepository.getChangeCursor()).thenReturn("2");
+        readPage(10);
+
+        verify(userRepository, times(2)).getUsersAfter(0, 11);
+    }
+
+    /**
+     * Tests that saving a user invalidates cached pages.
+     * Ensures reads after a write see the new data.
+     */
+    @Test
+    void testSaveUser_EvictsCachedPages() {
+        when(userRepository.getUsersAfter(0, 11)).thenReturn(List.of());
+
+        readPage(10);
+        userService.saveUser(new User(0, "Bob", "bob@example.com"));
+        readPage(10);
+
+        verify(userRepository, times(2)).getUsersAfter(0, 11);
+    }
+
+    /**
+     * Tests that single-user lookups are cached by ID and evicted on writes.
+     * Ensures a found user is served from the cache until this instance writes.
+     */
+    @Test
+    void testGetUserById_CachedAndEvictedOnSave() {
+        User user = new User(1, "Alice", "alice@example.com");
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), userService.getUserById(1));
+        assertEquals(Optional.of(user), userService.getUserById(1), "The cached user should be returned");
+        verify(userRepository, times(1)).findById(1);
+        userService.saveUser(new User(2, "Bob", "bob@example.com"));
+
+        assertEquals(Optional.of(user), userService.getUserById(1));
+        verify(userRepository, times(2)).findById(1);
+    }
+
+    /**
+     * Tests that a lookup by ID that found nothing is not cached.
+     * Ensures a user inserted by another instance, which evicts nothing here, is found next time.
+     */
+    @Test
+    void testGetUserById_MissIsNotCached() {
+        User user = new User(1, "Alice", "alice@example.com");
+        when(userRepository.findById(1)).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertTrue(userService.getUserById(1).isEmpty(), "The first lookup should miss");
+        assertEquals(Optional.of(user), userService.getUserById(1), "The insert should be found without an eviction");
+        assertEquals(Optional.of(user), userService.getUserById(1));
+        verify(userRepository, times(2)).findById(1);
+    }
+
+    /**
+     * Tests that a lookup by email that found nothing is not cached.
+     * Ensures a user inserted by another instance, which evicts nothing here, is found next time.
+     */
+    @Test
+    void testGetUserByEmail_MissIsNotCached() {
+        User user = new User(1, "Alice", "alice@example.com");
+        when(userRepository.findByEmail("alice@example.com")).thenReturn(Optional.empty(), Optional.of(user));
+
+        assertTrue(userService.getUserByEmail("alice@example.com").isEmpty(), "The first lookup should miss");
+        assertEquals(Optional.of(user), userService.getUserByEmail("alice@example.com"),
+            "The insert should be found without an eviction");
+        assertEquals(Optional.of(user), userService.getUserByEmail("alice@example.com"));
+        verify(userRepository, times(2)).findByEmail("alice@example.com");
+    }
+
+    /**
+     * Tests that the application's Caffeine cache is the one backing the service.
+     */
+    @Test
+    void testCacheManager_HasUserPagesCache() {
+        assertNotNull(cacheManager.getCache(CacheConfig.USER_PAGES));
+    }
+
+    private UserPage readPage(int limit) {
+        return userService.getUsersPage(null, limit, userService.getPageVersion(null, limit));
+    }
+}
@@ -5,18 +5,32 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.example.usermanagement.dto.BatchResult;
+import com.example.usermanagement.dto.UserChangePage;
+import com.example.usermanagement.dto.UserPage;
 import com.example.usermanagement.entity.User;
 import com.example.usermanagement.repository.UserRepository;
+import com.example.usermanagement.validation.InvalidRequestException;
+import com.example.usermanagement.validation.UserValidator;
 
 /**
  * Unit test class for {@link UserService}.
@@ -31,6 +45,24 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    /**
+     * Real validator so that bulk creation applies the actual {@link User} constraints.
+     */
+    @Spy
+    private UserValidator validator = new UserValidator();
+
+    /**
+     * Mock instance of {@link UserSearchIndex} to isolate search from indexing.
+     */
+    @Mock
+    private UserSearchIndex searchIndex;
+
+    /**
+     * Real email filter, left unbuilt so that every address is checked in the repository.
+     */
+    @Spy
+    private EmailBloomFilter emailFilter = new EmailBloomFilter();
+
     /**
      * Instance of {@link UserService} being tested.
      * Injects the mocked repository to isolate service logic.
@@ -50,6 +82,7 @@ class UserServiceTest {
         testUser.setId(1);
         testUser.setName("John Doe");
         testUser.setEmail("john.doe@example.com");
+        ReflectionTestUtils.setField(emailFilter, "userRepository", userRepository);
     }
 
     /**
@@ -87,6 +120,24 @@ class UserServiceTest {
         verify(userRepository, times(1)).getAllUsers();
     }
 
+    /**
+     * Tests the {@link UserService#exportUsers(Consumer)} method.
+     * Ensures every streamed user reaches the caller's action.
+     */
+    @Test
+    void testExportUsers_StreamsUsers() {
+        doAnswer(invocation -> {
+            Consumer<User> action = invocation.getArgument(0);
+            action.accept(testUser);
+            return null;
+        }).when(userRepository).forEachUser(any());
+
+        List<User> exported = new ArrayList<>();
+        userService.exportUsers(exported::add);
+
+        assertEquals(List.of(testUser), exported);
+    }
+
     /**
      * Tests the {@link UserService#saveUser(User)} method.
      * Ensures user data is correctly passed to the repository for saving.
@@ -98,6 +149,8 @@ class UserServiceTest {
 
         // Pass Condition: Verify that repository saveUser() is called with correct user
         verify(userRepository, times(1)).saveUser(testUser);
+        verify(emailFilter, times(1)).add("john.doe@example.com");
+        verify(searchIndex, times(1)).addAll(List.of(testUser));
     }
 
     /**
@@ -115,4 +168,408 @@ class UserServiceTest {
         // Verify that repository method is never called
         verify(userRepository, never()).saveUser(any());
     }
+
+    /**
+     * Tests the {@link UserService#saveUser(User)} method with an email address that is already taken.
+     * Ensures the user is rejected before the insert and its address is not added to the filter.
+     */
+    @Test
+    void testSaveUser_DuplicateEmail_ThrowsException() {
+        when(userRepository.findExistingEmails(List.of("john.doe@example.com"))).thenReturn(Set.of("john.doe@example.com"));
+
+        Exception exception = assertThrows(DuplicateKeyException.class, () -> userService.saveUser(testUser));
+
+        assertEquals(UserService.DUPLICATE_EMAIL_MESSAGE, exception.getMessage());
+        verify(userRepository, never()).saveUser(any());
+        verify(emailFilter, never()).add(any());
+    }
+
+    /**
+     * Tests the {@link UserService#getUsersPage(String, int, String)} method for a table with more rows than the limit.
+     * Ensures the page is trimmed to the limit and a cursor to the next page is returned.
+     */
+    @Test
+    void testGetUsersPage_HasNextPage() {
+        // Premise: The repository returns one row more than requested
+        when(userRepository.getUsersAfter(0, 3)).thenReturn(Arrays.asList(
+            new User(1, "Alice", "alice@example.com"),
+            new User(2, "Bob", "bob@example.com"),
+            new User(3, "Carol", "carol@example.com")));
+
+        UserPage page = userService.getUsersPage(null, 2, "v1");
+
+        assertEquals(2, page.getUsers().size());
+        assertEquals(2, page.getUsers().get(1).getId());
+        assertNotNull(page.getNextCursor());
+
+        // Pass Condition: The cursor resumes the scan after the last returned ID
+        when(userRepository.getUsersAfter(2, 3)).thenReturn(Arrays.asList(new User(3, "Carol", "carol@example.com")));
+
+        UserPage next = userService.getUsersPage(page.getNextCursor(), 2, "v1");
+
+        assertEquals(1, next.getUsers().size());
+        assertEquals("Carol", next.getUsers().get(0).getName());
+        assertNull(next.getNextCursor());
+    }
+
+    /**
+     * Tests the {@link UserService#getUsersPage(String, int, String)} method with an out-of-range limit.
+     * Ensures the repository is not queried.
+     */
+    @Test
+    void testGetUsersPage_InvalidLimit_ThrowsException() {
+        Exception exception = assertThrows(InvalidRequestException.class,
+            () -> userService.getUsersPage(null, UserService.MAX_PAGE_SIZE + 1, "v1"));
+
+        assertEquals("Limit must be between 1 and " + UserService.MAX_PAGE_SIZE, exception.getMessage());
+        verify(userRepository, never()).getUsersAfter(anyInt(), anyInt());
+    }
+
+    /**
+     * Tests the {@link UserService#getUsersPage(String, int, String)} method with a malformed cursor.
+     * Ensures tampered cursors are rejected.
+     */
+    @Test
+    void testGetUsersPage_InvalidCursor_ThrowsException() {
+        Exception exception = assertThrows(InvalidRequestException.class,
+            () -> userService.getUsersPage("not-a-cursor", 10, "v1"));
+
+        assertEquals("Invalid cursor", exception.getMessage());
+        verify(userRepository, never()).getUsersAfter(anyInt(), anyInt());
+    }
+
+    /**
+     * Tests the {@link UserService#getPageVersion(String, int)} method.
+     * Ensures the tag follows the change feed and the page bounds without reading any users.
+     */
+    @Test
+    void testGetPageVersion_DerivedFromChangeFeedAndBounds() {
+        when(userRepository.getChangeCursor()).thenReturn("41");
+        when(userRepository.getUsersAfter(0, 2)).thenReturn(List.of(testUser, new User(2, "Bob", "bob@example.com")));
+        String nextPage = userService.getUsersPage(null, 1, "v1").getNextCursor();
+        String version = userService.getPageVersion(null, 10);
+
+        assertEquals(version, userService.getPageVersion(null, 10), "An unchanged feed should keep the tag");
+        assertNotEquals(version, userService.getPageVersion(null, 20), "A different limit should change the tag");
+        assertNotEquals(version, userService.getPageVersion(nextPage, 10), "A different page should change the tag");
+        when(userRepository.getChangeCursor()).thenReturn("42");
+        assertNotEquals(version, userService.getPageVersion(null, 10), "A new change should change the tag");
+        verify(userRepository, times(1)).getUsersAfter(anyInt(), anyInt());
+    }
+
+    /**
+     * Tests the {@link UserService#getPageVersion(String, int)} method with an out-of-range limit.
+     * Ensures the change feed is not read.
+     */
+    @Test
+    void testGetPageVersion_InvalidLimit_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> userService.getPageVersion(null, 0));
+        verify(userRepository, never()).getChangeCursor();
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method with a mix of valid and invalid users.
+     * Ensures valid users are batch inserted and invalid ones are reported by index.
+     */
+    @Test
+    void testSaveUsers_ReportsInvalidItems() {
+        User invalid = new User(0, "A", "not-an-email");
+        User valid = new User(0, "Bob", "bob@example.com");
+
+        BatchResult result = userService.saveUsers(Arrays.asList(testUser, invalid, null, valid));
+
+        // Pass Condition: Only the valid users reach the repository, in request order
+        verify(userRepository, times(1)).saveUsers(List.of(testUser, valid));
+        verify(searchIndex, times(1)).addAll(List.of(testUser, valid));
+        assertEquals(2, result.getCreated());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals("Name must be between 2 and 255 characters", result.getErrors().get(0).getErrors().get("name"));
+        assertEquals("Invalid email format", result.getErrors().get(0).getErrors().get("email"));
+        assertEquals(2, result.getErrors().get(1).getIndex());
+        assertEquals("User cannot be null", result.getErrors().get(1).getErrors().get("user"));
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method when every user is invalid.
+     * Ensures the repository is not called.
+     */
+    @Test
+    void testSaveUsers_AllInvalid_SkipsRepository() {
+        BatchResult result = userService.saveUsers(List.of(new User(-1, "", "")));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        verify(userRepository, never()).saveUsers(any());
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method with an empty request.
+     * Ensures an exception is thrown.
+     */
+    @Test
+    void testSaveUsers_Empty_ThrowsException() {
+        Exception exception = assertThrows(InvalidRequestException.class, () -> userService.saveUsers(List.of()));
+
+        assertEquals("Users cannot be empty", exception.getMessage());
+        verify(userRepository, never()).saveUsers(any());
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method with duplicate email addresses.
+     * Ensures emails already in the database or repeated in the request are rejected.
+     */
+    @Test
+    void testSaveUsers_RejectsDuplicateEmails() {
+        User taken = new User(0, "Alice", "alice@example.com");
+        User fresh = new User(0, "Bob", "bob@example.com");
+        User repeated = new User(0, "Bobby", "bob@example.com");
+        when(userRepository.findExistingEmails(List.of("alice@example.com", "bob@example.com", "bob@example.com")))
+            .thenReturn(Set.of("alice@example.com"));
+
+        BatchResult result = userService.saveUsers(List.of(taken, fresh, repeated));
+
+        verify(userRepository, times(1)).saveUsers(List.of(fresh));
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(0, result.getErrors().get(0).getIndex());
+        assertEquals(UserService.DUPLICATE_EMAIL_MESSAGE, result.getErrors().get(0).getErrors().get("email"));
+        assertEquals(2, result.getErrors().get(1).getIndex());
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method with emails differing only in case.
+     * Ensures they are treated as the same address, in the request and in the database.
+     */
+    @Test
+    void testSaveUsers_RejectsDuplicateEmailsIgnoringCase() {
+        User taken = new User(0, "Alice", "Alice@Example.com");
+        User fresh = new User(0, "Bob", "bob@example.com");
+        User repeated = new User(0, "Bobby", "BOB@example.com");
+        when(userRepository.findExistingEmails(List.of("Alice@Example.com", "bob@example.com", "BOB@example.com")))
+            .thenReturn(Set.of("alice@example.com"));
+
+        BatchResult result = userService.saveUsers(List.of(taken, fresh, repeated));
+
+        verify(userRepository, times(1)).saveUsers(List.of(fresh));
+        assertEquals(1, result.getCreated());
+        assertEquals(0, result.getErrors().get(0).getIndex());
+        assertEquals(2, result.getErrors().get(1).getIndex());
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method when an email is taken while the batch is saved.
+     * Ensures each user is then saved on its own and only the user whose email is taken is reported.
+     */
+    @Test
+    void testSaveUsers_DuplicateKey_ReportsOnlyTakenEmails() {
+        User first = new User(0, "Alice", "alice@example.com");
+        User raced = new User(0, "Bob", "bob@example.com");
+        User last = new User(0, "Carol", "carol@example.com");
+        doThrow(new DuplicateKeyException("uk_users_email")).when(userRepository).saveUsers(any());
+        doAnswer(invocation -> {
+            if (invocation.getArgument(0) == raced) {
+                throw new DuplicateKeyException("uk_users_email");
+            }
+            return null;
+        }).when(userRepository).saveUser(any());
+
+        BatchResult result = userService.saveUsers(List.of(first, raced, last));
+
+        verify(userRepository).saveUser(first);
+        verify(userRepository).saveUser(last);
+        verify(searchIndex).addAll(List.of(first, last));
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+        assertEquals(UserService.DUPLICATE_EMAIL_MESSAGE, result.getErrors().get(0).getErrors().get("email"));
+    }
+
+    /**
+     * Tests the {@link UserService#saveUsers(List)} method when part of a failed batch was already saved,
+     * as on another shard of a sharded repository.
+     * Ensures the users already stored are counted as created rather than inserted again.
+     */
+    @Test
+    void testSaveUsers_DuplicateKey_KeepsUsersAlreadyStored() {
+        User stored = new User(0, "Alice", "alice@example.com");
+        User raced = new User(0, "Bob", "bob@example.com");
+        doAnswer(invocation -> {
+            stored.setId(7);
+            raced.setId(8);
+            throw new DuplicateKeyException("uk_users_email");
+        }).when(userRepository).saveUsers(any());
+        when(userRepository.findById(7)).thenReturn(Optional.of(new User(7, "Alice", "alice@example.com")));
+        doThrow(new DuplicateKeyException("uk_users_email")).when(userRepository).saveUser(raced);
+
+        BatchResult result = userService.saveUsers(List.of(stored, raced));
+
+        verify(userRepository, never()).saveUser(stored);
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getErrors().get(0).getIndex());
+    }
+
+    /**
+     * Tests the {@link UserService#getUserById(int)} method.
+     * Ensures the lookup is delegated to the repository.
+     */
+    @Test
+    void testGetUserById_ReturnsUser() {
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+
+        assertEquals(Optional.of(testUser), userService.getUserById(1));
+    }
+
+    /**
+     * Tests the {@link UserService#getUserByEmail(String)} method for an unknown address.
+     * Ensures an empty result is returned.
+     */
+    @Test
+    void testGetUserByEmail_NotFound() {
+        when(userRepository.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        assertTrue(userService.getUserByEmail("nobody@example.com").isEmpty());
+    }
+
+    /**
+     * Tests the {@link UserService#searchUsers(String, int)} method.
+     * Ensures the search is delegated to the index.
+     */
+    @Test
+    void testSearchUsers_DelegatesToIndex() {
+        when(searchIndex.search("john", 10)).thenReturn(List.of(testUser));
+
+        assertEquals(List.of(testUser), userService.searchUsers("john", 10));
+    }
+
+    /**
+     * Tests the {@link UserService#searchUsers(String, int)} method with an out-of-range limit.
+     * Ensures an InvalidRequestException is thrown before the index is queried.
+     */
+    @Test
+    void testSearchUsers_InvalidLimit() {
+        assertThrows(InvalidRequestException.class, () -> userService.searchUsers("john", UserService.MAX_SEARCH_LIMIT + 1));
+        verifyNoInteractions(searchIndex);
+    }
+
+    /**
+     * Tests that lookups and pages are served by the compact store when it is enabled.
+     * Ensures the repository is not queried.
+     */
+    @Test
+    void testReads_ServedFromCompactStore() {
+        CompactUserStore store = mock(CompactUserStore.class);
+        ReflectionTestUtils.setField(userService, "compactStore", store);
+        when(store.findById(1)).thenReturn(Optional.of(testUser));
+        when(store.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+        when(store.getUsersAfter(0, 51)).thenReturn(List.of(testUser));
+
+        assertEquals(Optional.of(testUser), userService.getUserById(1));
+        assertEquals(Optional.of(testUser), userService.getUserByEmail("john@example.com"));
+        assertEquals(List.of(testUser), userService.getUsersPage(null, 50, "v1").getUsers());
+        verifyNoInteractions(userRepository);
+    }
+
+    /**
+     * Tests lookups of users the compact store does not hold yet.
+     * Ensures they are looked up in the database instead of reported missing.
+     */
+    @Test
+    void testReads_CompactStoreMissFallsBackToRepository() {
+        CompactUserStore store = mock(CompactUserStore.class);
+        ReflectionTestUtils.setField(userService, "compactStore", store);
+        when(store.findById(1)).thenReturn(Optional.empty());
+        when(store.findByEmail("john.doe@example.com")).thenReturn(Optional.empty());
+        when(userRepository.findById(1)).thenReturn(Optional.of(testUser));
+        when(userRepository.findByEmail("john.doe@example.com")).thenReturn(Optional.of(testUser));
+
+        assertEquals(Optional.of(testUser), userService.getUserById(1));
+        assertEquals(Optional.of(testUser), userService.getUserByEmail("john.doe@example.com"));
+    }
+
+    /**
+     * Tests that saved users are copied into the compact store when it is enabled.
+     */
+    @Test
+    void testSaveUser_AddsToCompactStore() {
+        CompactUserStore store = mock(CompactUserStore.class);
+        ReflectionTestUtils.setField(userService, "compactStore", store);
+
+        userService.saveUser(testUser);
+
+        verify(store, times(1)).addAll(List.of(testUser));
+    }
+
+    /**
+     * Tests the {@link UserService#getChanges(String, int)} method.
+     * Ensures the feed is read from the repository after the given point.
+     */
+    @Test
+    void testGetChanges_DelegatesToRepository() {
+        UserChangePage changes = new UserChangePage(List.of(testUser), "42", false);
+        when(userRepository.getChangesAfter("41", 100)).thenReturn(changes);
+
+        assertSame(changes, userService.getChanges("41", 100));
+    }
+
+    /**
+     * Tests the {@link UserService#getChanges(String, int)} method with an out-of-range limit.
+     * Ensures an InvalidRequestException is thrown before the repository is queried.
+     */
+    @Test
+    void testGetChanges_InvalidLimit() {
+        assertThrows(InvalidRequestException.class, () -> userService.getChanges("0", 0));
+        assertThrows(InvalidRequestException.class, () -> userService.getChanges("0", UserService.MAX_CHANGES_LIMIT + 1));
+        verifyNoInteractions(userRepository);
+    }
+
+    /**
+     * Tests the {@link UserService#getUsersPage(String, int, String)} method under concurrent calls.
+     * Ensures simultaneous requests for the same page share one query.
+     */
+    @Test
+    void testGetUsersPage_ConcurrentCallersShareOneQuery() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.getUsersAfter(0, 51)).thenAnswer(invocation -> {
+            SingleFlightTest.await(release);
+            return List.of(testUser);
+        });
+        ConcurrentLinkedQueue<UserPage> results = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = SingleFlightTest.start(20, () -> results.add(userService.getUsersPage(null, 50, "v1")));
+        SingleFlightTest.awaitWaiting(callers);
+        release.countDown();
+        SingleFlightTest.joinAll(callers);
+
+        verify(userRepository, times(1)).getUsersAfter(0, 51);
+        UserPage first = results.peek();
+        results.forEach(page -> assertSame(first, page));
+    }
+
+    /**
+     * Tests that a read starting after {@link UserService#saveUser(User)} returns
+     * runs its own query instead of joining one begun before the write.
+     */
+    @Test
+    void testSaveUser_LaterReadsDoNotJoinEarlierQuery() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        Optional<User> before = Optional.empty();
+        Optional<User> after = Optional.of(testUser);
+        when(userRepository.findById(testUser.getId()))
+            .thenAnswer(invocation -> {
+                SingleFlightTest.await(release);
+                return before;
+            })
+            .thenReturn(after);
+
+        List<Thread> reader = SingleFlightTest.start(1, () -> userService.getUserById(testUser.getId()));
+        SingleFlightTest.awaitWaiting(reader);
+        userService.saveUser(testUser);
+        Optional<User> result = userService.getUserById(testUser.getId());
+        release.countDown();
+        SingleFlightTest.joinAll(reader);
+
+        assertSame(after, result, "A read after the write should see it");
+        verify(userRepository, times(2)).findById(testUser.getId());
+    }
 }
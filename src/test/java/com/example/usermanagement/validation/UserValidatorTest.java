@@ -0,0 +1,153 @@
+package com.example.usermanagement.validation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+
+import com.example.usermanagement.entity.User;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Test class for {@link UserValidator}.
+ * Compares its verdicts and messages with Bean Validation of the {@link User} annotations.
+ */
+public class UserValidatorTest {
+
+    private static final List<String> EMAILS = List.of(
+        "john.doe@example.com", "JOHN@EXAMPLE.COM", "a@b", "user+tag@sub.example.co.uk", "o'brien@example.ie",
+        "\"quoted name\"@example.com", "\"a@b\"@example.com", "user@[192.168.0.1]", "user@[IPv6:2001:db8::1]",
+        "jürgen@münchen.de", "user@xn--mnchen-3ya.de", "user@exa_mple.com", "user@ex--ample.com",
+        "not-an-email", "@example.com", "user@", "user@example.com.", "user@.example.com", "user@exa..mple.com",
+        "user@-example.com", "a-b@x-y.com", "user@a--b.com", "user@a.-b.com", "user@a.b-", "user@-", "a@b@c.com",
+        "user@x!y.com", "us{e}r@example.com", "user@example.com-", "u.s.e.r@e.x.a.m.p.l.e", "user@example-.com", ".user@example.com", "user.@example.com", "us..er@example.com",
+        "user name@example.com", "user@exa mple.com", "user@[300.1.1]", "a".repeat(64) + "@example.com",
+        "a".repeat(65) + "@example.com", "user@" + "a".repeat(63) + ".com", "user@" + "a".repeat(64) + ".com",
+        "user@" + ("a".repeat(60) + ".").repeat(4) + "com", "user@" + ("a".repeat(60) + ".").repeat(5) + "com",
+        "user@ü" + "a".repeat(63) + ".com", "user @example.com");
+
+    private static final List<String> NAMES = List.of(
+        "John Doe", "Jo", "J", "   ", "", " J ", "\t\n", "  ", "a".repeat(255), "a".repeat(256));
+
+    private static ValidatorFactory factory;
+
+    private static Validator beanValidator;
+
+    private final UserValidator validator = new UserValidator();
+
+    @BeforeAll
+    public static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        beanValidator = factory.getValidator();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        factory.close();
+    }
+
+    /**
+     * Tests that a valid user has no errors.
+     */
+    @Test
+    public void testValidUser() {
+        assertFalse(validator.validateObject(new User(0, "John Doe", "john.doe@example.com")).hasErrors());
+    }
+
+    /**
+     * Tests that every field of an empty user is reported with the annotation messages.
+     */
+    @Test
+    public void testInvalidUser_Messages() {
+        Errors errors = validator.validateObject(new User(-1, null, null));
+
+        assertEquals(Map.of(
+            "id", "ID cannot be negative",
+            "name", "Name cannot be empty",
+            "email", "Email cannot be empty"), messages(errors));
+        assertEquals(Map.of(
+            "name", "Name must be between 2 and 255 characters",
+            "email", "Invalid email format"), messages(validator.validateObject(new User(0, "J", "not-an-email"))));
+    }
+
+    /**
+     * Tests that email addresses are accepted and rejected exactly as by {@code @Email}.
+     */
+    @Test
+    public void testEmailParity() {
+        for (String email : EMAILS) {
+            assertParity(new User(1, "John Doe", email));
+        }
+    }
+
+    /**
+     * Tests that every address taken by the precompiled fast path is valid for {@code @Email},
+     * so skipping Bean Validation never accepts an address it would reject.
+     */
+    @Test
+    public void testCommonEmailPattern_IsSubsetOfEmailRule() {
+        int common = 0;
+        for (String email : EMAILS) {
+            if (UserValidator.isCommonEmail(email)) {
+                common++;
+                assertTrue(beanValidator.validateValue(User.class, "email", email).isEmpty(),
+                    "The fast path accepted " + email + ", which @Email rejects");
+            }
+        }
+        assertTrue(common > 10, "The corpus should exercise the fast path");
+        assertTrue(UserValidator.isCommonEmail("john.doe@example.com"));
+        assertFalse(UserValidator.isCommonEmail("\"quoted name\"@example.com"), "Quoted local parts should be left to Bean Validation");
+    }
+
+    /**
+     * Tests that names are accepted and rejected exactly as by {@code @NotBlank} and {@code @Size}.
+     */
+    @Test
+    public void testNameParity() {
+        for (String name : NAMES) {
+            assertParity(new User(1, name, "john.doe@example.com"));
+        }
+    }
+
+    /**
+     * Tests that IDs are accepted and rejected exactly as by {@code @Min}.
+     */
+    @Test
+    public void testIdParity() {
+        for (int id : new int[] {Integer.MIN_VALUE, -1, 0, 1, Integer.MAX_VALUE}) {
+            assertParity(new User(id, "John Doe", "john.doe@example.com"));
+        }
+    }
+
+    /**
+     * Asserts that the same fields fail and that each reported message is one Bean Validation reports.
+     */
+    private void assertParity(User user) {
+        Map<String, Set<String>> expected = beanValidator.validate(user).stream()
+            .collect(Collectors.groupingBy(violation -> violation.getPropertyPath().toString(),
+                Collectors.mapping(ConstraintViolation::getMessage, Collectors.toSet())));
+        Map<String, String> actual = messages(validator.validateObject(user));
+
+        String input = user.getId() + " / " + user.getName() + " / " + user.getEmail();
+        assertEquals(expected.keySet(), actual.keySet(), "Invalid fields should match for " + input);
+        actual.forEach((field, message) ->
+            assertTrue(expected.get(field).contains(message), "Unexpected message " + message + " for " + input));
+    }
+
+    private static Map<String, String> messages(Errors errors) {
+        return errors.getFieldErrors().stream()
+            .collect(Collectors.toMap(FieldError::getField, FieldError::getDefaultMessage));
+    }
+}